@@ -7,84 +7,336 @@
 
 // AVLTree class
 //
-// CONSTRUCTION: with no initializer
+// CONSTRUCTION: with no initializer, with Monoids to aggregate over, or in bulk with
+//               fromSorted( list [, monoids] ) / fromUnsorted( collection )
 //
 // ******************PUBLIC OPERATIONS*********************
 // void insert( x )       --> Insert x
-// void remove( x )       --> Remove x (unimplemented)
 // boolean contains( x )  --> Return true if x is present
+// Comparable get( x )    --> Return the stored item matching x, or null
 // boolean remove( x )    --> Return true if x was present
+// boolean removeAll( c ) --> Remove every item of c
+// boolean removeIf( p )  --> Remove every item matching p
 // Comparable findMin( )  --> Return smallest item
 // Comparable findMax( )  --> Return largest item
 // boolean isEmpty( )     --> Return true if empty; else false
 // void makeEmpty( )      --> Remove all items
 // void printTree( )      --> Print tree in sorted order
+// int size( )            --> Return number of items, O(1)
+// int rank( x )          --> Return number of items less than x
+// Comparable select( k ) --> Return k-th smallest item (0-based)
+// int countBetween( lo, hi ) --> Return number of items in [lo, hi]
+// Iterator iterator( )   --> Iterate in sorted order, lazily
+// Iterable descending( ) --> View of the tree in reverse order
+// Range headSet / tailSet / subSet --> Views of a bounded range
+// AVLTree union / intersection / difference( a, b ) --> Set operations (empty a and b)
+// AVLTree copy( )        --> Return a copy of the tree
+// FrozenTree freeze( )   --> Return a read-only, search-optimized copy
+// A aggregate( m [, lo, hi] ) --> Combine Monoid m over all items / items in [lo, hi], O(log n)
+// void useBloomFilter( hash, fpr ) --> Answer most contains misses from a BloomFilter
+// (run with -Dtree.stats=true to count operations in TreeStats.AVL)
 // ******************ERRORS********************************
 // Throws UnderflowException as appropriate
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
 /**
  * Implements an AVL tree.
  * Note that all "matching" is based on the compareTo method.
  */
-public class AVLTree<AnyType extends Comparable<? super AnyType>> {
+public class AVLTree<AnyType extends Comparable<? super AnyType>> implements Iterable<AnyType> {
     // The tree root.
     private AVLNode<AnyType> root;
 
+    // The aggregates every node keeps a summary of for its subtree, or null if none.
+    private final Monoid<? super AnyType, ?>[ ] aggregates;
+
+    // Optional filter in front of contains, and the number of removes since it was built.
+    private BloomFilter<? super AnyType> bloom;
+    private int bloomRemoved;
+
     // Construct the tree.
     public AVLTree( ) {
         root = null;
+        aggregates = null;
+    }
+
+    /**
+     * Construct the tree, keeping a summary of each aggregate in every node so that
+     * aggregate( m, lo, hi ) answers in O(log n). Each update then costs
+     * O(log n) more combine calls per aggregate.
+     * @param aggregates the Monoids to maintain.
+     */
+    @SafeVarargs
+    public AVLTree( Monoid<? super AnyType, ?>... aggregates ) {
+        root = null;
+        //copied element by element: the caller's varargs array must not be kept (or passed on) as it is
+        Monoid<? super AnyType, ?>[ ] copy = aggregates.length == 0 ? null : newMonoidArray( aggregates.length );
+        for( int i = 0; i < aggregates.length; i++ )
+            copy[ i ] = aggregates[ i ];
+        this.aggregates = copy;
+    }
+
+    /**
+     * Build a perfectly balanced tree from items already in strictly increasing
+     * order, in linear time and without any rotations.
+     * @param sorted the items, in strictly increasing compareTo order.
+     * @return a new tree holding every item.
+     * @throws IllegalArgumentException if the items are not strictly increasing.
+     */
+    public static <AnyType extends Comparable<? super AnyType>> AVLTree<AnyType> fromSorted( List<? extends AnyType> sorted ) {
+        Object[ ] items = sorted.toArray( );
+        for( int i = 1; i < items.length; i++ )
+            if( compareItems( items[ i - 1 ], items[ i ] ) >= 0 )
+                throw new IllegalArgumentException( "Items are not strictly increasing at index " + i );
+        AVLTree<AnyType> tree = new AVLTree<>( );
+        tree.root = buildBalanced( items, 0, items.length - 1 );
+        return tree;
+    }
+
+    /**
+     * Build a perfectly balanced tree that keeps the given aggregates, from items already
+     * in strictly increasing order, in linear time.
+     * @param sorted the items, in strictly increasing compareTo order.
+     * @param aggregates the Monoids to maintain.
+     * @throws IllegalArgumentException if the items are not strictly increasing.
+     */
+    @SafeVarargs
+    public static <AnyType extends Comparable<? super AnyType>> AVLTree<AnyType> fromSorted( List<? extends AnyType> sorted,
+                                                                                           Monoid<? super AnyType, ?>... aggregates ) {
+        Monoid<? super AnyType, ?>[ ] copy = newMonoidArray( aggregates.length );
+        for( int i = 0; i < aggregates.length; i++ )
+            copy[ i ] = aggregates[ i ];
+        AVLTree<AnyType> tree = new AVLTree<>( copy );
+        tree.root = AVLTree.<AnyType>fromSorted( sorted ).root;
+        if( tree.aggregates != null )
+            tree.summarizeAll( tree.root );
+        return tree;
+    }
+
+    // Create an array of Monoids (a generic array can't be created directly)
+    @SuppressWarnings( "unchecked" )
+    private static <AnyType> Monoid<? super AnyType, ?>[ ] newMonoidArray( int length ) {
+        return (Monoid<? super AnyType, ?>[ ]) new Monoid<?, ?>[ length ];
+    }
+
+    /**
+     * Build a perfectly balanced tree from items in any order. The items are sorted
+     * and items that compare equal are dropped (the first one is kept), as insert would.
+     * @param items the items to load.
+     * @return a new tree holding every distinct item.
+     */
+    public static <AnyType extends Comparable<? super AnyType>> AVLTree<AnyType> fromUnsorted( Collection<? extends AnyType> items ) {
+        Object[ ] sorted = items.toArray( );
+        Arrays.sort( sorted ); // stable, so the first of several equal items stays first
+        int distinct = 0;
+        for( int i = 0; i < sorted.length; i++ )
+            if( distinct == 0 || compareItems( sorted[ distinct - 1 ], sorted[ i ] ) != 0 )
+                sorted[ distinct++ ] = sorted[ i ];
+        AVLTree<AnyType> tree = new AVLTree<>( );
+        tree.root = buildBalanced( sorted, 0, distinct - 1 );
+        return tree;
+    }
+
+    /**
+     * Internal method to build a balanced subtree from sorted items.
+     * The middle item becomes the root, so the halves differ in size by at most one.
+     * @param items the sorted items.
+     * @param lo index of the first item of the subtree.
+     * @param hi index of the last item of the subtree.
+     * @return the root of the subtree, with heights set.
+     */
+    @SuppressWarnings( "unchecked" )
+    private static <AnyType extends Comparable<? super AnyType>> AVLNode<AnyType> buildBalanced( Object[ ] items, int lo, int hi ) {
+        if( lo > hi )
+            return null;
+        int mid = ( lo + hi ) >>> 1;
+        AVLNode<AnyType> t = new AVLNode<>( (AnyType) items[ mid ],
+                buildBalanced( items, lo, mid - 1 ), buildBalanced( items, mid + 1, hi ) );
+        t.height = Math.max( height( t.getLeft( ) ), height( t.getRight( ) ) ) + 1;
+        t.size = hi - lo + 1;
+        return t;
+    }
+
+    // Compare two items pulled out of an Object[ ] copy of the input
+    @SuppressWarnings( "unchecked" )
+    private static <AnyType extends Comparable<? super AnyType>> int compareItems( Object a, Object b ) {
+        return ( (AnyType) a ).compareTo( (AnyType) b );
     }
 
     /**
      * Insert into the tree; duplicates are ignored.
      * @param x the item to insert.
+     * @return true if x was added, false if an equal item was already present.
      */
-    public void insert( AnyType x ) {
-        root = insert( x, root );
+    public boolean insert( AnyType x ) {
+        long start = TreeStats.start( );
+        if( root == null ) {
+            root = new AVLNode<>( x );
+            if( aggregates != null )
+                summarize( root );
+            if( bloom != null )
+                bloomAdd( x );
+            if( TreeStats.ENABLED )
+                TreeStats.AVL.record( TreeStats.Op.INSERT, 0, 0, start );
+            return true;
+        }
+        int depth = 0;
+        AVLNode<AnyType> t = root;
+        while( true ) {
+            int compareResult = x.compareTo( t.getData() );
+            if( compareResult == 0 ) {
+                Arrays.fill( path, 0, depth, null );
+                if( TreeStats.ENABLED )
+                    TreeStats.AVL.record( TreeStats.Op.INSERT, depth + 1, depth + 1, start );
+                return false; // Duplicate; do nothing
+            }
+            path[ depth++ ] = t;
+            AVLNode<AnyType> next = compareResult < 0 ? t.getLeft() : t.getRight();
+            if( next == null ) {
+                AVLNode<AnyType> leaf = new AVLNode<>( x );
+                if( aggregates != null )
+                    summarize( leaf );
+                if( compareResult < 0 )
+                    t.setLeft( leaf );
+                else
+                    t.setRight( leaf );
+                break;
+            }
+            t = next;
+        }
+        rebalancePath( depth );
+        if( bloom != null )
+            bloomAdd( x );
+        if( TreeStats.ENABLED )
+            TreeStats.AVL.record( TreeStats.Op.INSERT, depth, depth, start );
+        return true;
     }
 
     /**
      * Remove from the tree. Nothing is done if x is not found.
      * @param x the item to remove.
+     * @return true if x was found and removed.
+     */
+    public boolean remove( AnyType x ) {
+        boolean removed = remove( x, root );
+        //the filter can't forget x; once removed items are a quarter of the tree, rebuild it so misses stay cheap
+        if( removed && bloom != null && ++bloomRemoved > size( ) / REBUILD_DIVISOR )
+            rebuildBloomFilter( );
+        return removed;
+    }
+
+    /**
+     * Remove every item of a collection from the tree.
+     * @param items the items to remove.
+     * @return true if anything was removed.
+     */
+    public boolean removeAll( Collection<? extends AnyType> items ) {
+        boolean changed = false;
+        for( AnyType x : items )
+            changed |= remove( x );
+        return changed;
+    }
+
+    // Above this fraction of the tree, removeIf rebuilds from the survivors instead of removing one by one
+    private static final int REBUILD_DIVISOR = 4;
+
+    /**
+     * Remove every item that matches a predicate. The tree is scanned once; when more
+     * than a quarter of it matches, the survivors are bulk-built into a new balanced tree
+     * in O(n), otherwise the matches are removed one at a time in O(k log n).
+     * @param filter returns true for items to remove.
+     * @return true if anything was removed.
      */
-    public void remove( AnyType x ) {
-        root = remove( x, root );
+    public boolean removeIf( Predicate<? super AnyType> filter ) {
+        Object[ ] survivors = new Object[ size( ) ];
+        List<AnyType> matches = new ArrayList<>( );
+        int kept = 0;
+        for( AnyType x : this ) {
+            if( filter.test( x ) )
+                matches.add( x );
+            else
+                survivors[ kept++ ] = x;
+        }
+        if( matches.isEmpty( ) )
+            return false;
+        if( matches.size( ) > survivors.length / REBUILD_DIVISOR ) {
+            root = buildBalanced( survivors, 0, kept - 1 );
+            if( aggregates != null )
+                summarizeAll( root );
+            if( bloom != null )
+                rebuildBloomFilter( );
+        }
+        else
+            for( AnyType x : matches )
+                remove( x );
+        return true;
     }
 
 
     /**
      * Internal method to remove from a subtree.
+     * Walks down once, recording the path in the path buffer, unlinks the node
+     * (or its in-order successor) and then rebalances on the way back up.
      * @param x the item to remove.
      * @param t the node that roots the subtree.
-     * @return the new root of the subtree.
-     */
-    //Searches subtree with root t in pre-order for a match to x and removes and returns it, or returns null if no match is found
-    private AVLNode<AnyType> remove(AnyType x, AVLNode<AnyType> t ) {
-        if (t == null || !contains(x)) return null;
-        else {
-            return removeHelp(x, t);
-        }
-    }
-
-    //Recursive helper method for remove()
-    private AVLNode<AnyType> removeHelp(AnyType x, AVLNode<AnyType> t) {
-        if (t == null) return null;
-        if (t.compareTo(x) > 0)
-            t.setLeft(removeHelp(x, t.getLeft()));
-        else if (t.compareTo(x) < 0)
-            t.setRight(removeHelp(x, t.getRight()));
-        else {
-            if (t.getLeft() == null) { //right child only, return right
-                return t.getRight();
-            } else if (t.getRight() == null) { //left child only, return left
-                return t.getLeft();
-            } else { //both children, set rt to the lowest value in the right, then delete the lowest value from its previous position
-                AVLNode<AnyType> temp = findMin(t.getRight());
-                t.setData(temp.data);
-                t.setRight(removeHelp(temp.data, t.getRight()));
+     * @return true if x was found and removed.
+     */
+    //Searches subtree with root t by compareTo order for a match to x and removes it, or does nothing if no match is found
+    private boolean remove( AnyType x, AVLNode<AnyType> t ) {
+        long start = TreeStats.start( );
+        int depth = 0;
+        while( t != null ) {
+            int compareResult = x.compareTo( t.getData() );
+            if( compareResult == 0 )
+                break;
+            path[ depth++ ] = t;
+            t = compareResult < 0 ? t.getLeft() : t.getRight();
+        }
+        if( t == null ) {
+            Arrays.fill( path, 0, depth, null );
+            if( TreeStats.ENABLED )
+                TreeStats.AVL.record( TreeStats.Op.REMOVE, depth, depth, start );
+            return false; // Not found; do nothing
+        }
+        int comparisons = depth + 1;
+
+        if( t.getLeft() != null && t.getRight() != null ) {
+            //both children, copy the lowest value in the right subtree into t, then unlink that lowest node instead
+            path[ depth++ ] = t;
+            AVLNode<AnyType> successor = t.getRight();
+            while( successor.getLeft() != null ) {
+                path[ depth++ ] = successor;
+                successor = successor.getLeft();
             }
+            t.setData( successor.getData() );
+            t = successor;
         }
-        return t;
+
+        //t now has at most one child, which takes its place
+        AVLNode<AnyType> child = t.getLeft() != null ? t.getLeft() : t.getRight();
+        if( depth == 0 )
+            root = child;
+        else if( path[ depth - 1 ].getLeft() == t )
+            path[ depth - 1 ].setLeft( child );
+        else
+            path[ depth - 1 ].setRight( child );
+        int visited = depth + 1;
+        rebalancePath( depth );
+        if( TreeStats.ENABLED )
+            TreeStats.AVL.record( TreeStats.Op.REMOVE, comparisons, visited, start );
+        return true;
     }
 
     /**
@@ -113,7 +365,96 @@ public class AVLTree<AnyType extends Comparable<? super AnyType>> {
      * @return true if x is found.
      */
     public boolean contains( AnyType x ) {
-        return contains( x, root );
+        if( bloom == null )
+            return contains( x, root );
+        if( !bloom.mightContain( x ) ) {
+            bloom.recordLookup( false, false );
+            if( TreeStats.ENABLED )
+                TreeStats.AVL.record( TreeStats.Op.CONTAINS, 0, 0, TreeStats.start( ) );
+            return false;
+        }
+        boolean found = contains( x, root );
+        bloom.recordLookup( true, found );
+        return found;
+    }
+
+    /**
+     * Put a Bloom filter in front of contains, so most lookups for absent items return
+     * without searching the tree. Insert adds to the filter; since removed items can't be
+     * cleared from it, the filter is rebuilt in O(n) once the removes since the last
+     * build pass a quarter of the tree, and also whenever the tree outgrows it.
+     * @param hash hash of an item; items that compareTo 0 must get the same hash.
+     * @param falsePositiveRate share of absent items the filter should let through, e.g. 0.01.
+     * @throws IllegalArgumentException if falsePositiveRate is not between 0 and 1.
+     */
+    public void useBloomFilter( ToLongFunction<? super AnyType> hash, double falsePositiveRate ) {
+        BloomFilter<AnyType> filter = new BloomFilter<>( hash, bloomCapacity( ), falsePositiveRate );
+        if( bloom != null )
+            filter.copyCounters( bloom );
+        for( AnyType x : this )
+            filter.add( x );
+        bloom = filter;
+        bloomRemoved = 0;
+    }
+
+    /**
+     * Stop using the Bloom filter; contains searches the tree every time again.
+     */
+    public void dropBloomFilter( ) {
+        bloom = null;
+        bloomRemoved = 0;
+    }
+
+    /**
+     * Return the Bloom filter in front of contains, with its hit and miss counters, or null.
+     */
+    public BloomFilter<? super AnyType> bloomFilter( ) {
+        return bloom;
+    }
+
+    // Add x to the filter, growing it first if it is already holding as many items as it was sized for
+    private void bloomAdd( AnyType x ) {
+        if( bloom.isFull( ) )
+            rebuildBloomFilter( );
+        else
+            bloom.add( x );
+    }
+
+    // Give an emptied tree a new, empty filter with the same hash and rate (and new counters), in O(1)
+    private void resetBloomFilter( ) {
+        if( bloom != null ) {
+            bloom = new BloomFilter<AnyType>( bloom.hashFunction( ), bloomCapacity( ), bloom.falsePositiveRate( ) );
+            bloomRemoved = 0;
+        }
+    }
+
+    // Rebuild the filter from the items now in the tree, keeping its hash, rate and counters
+    private void rebuildBloomFilter( ) {
+        useBloomFilter( bloom.hashFunction( ), bloom.falsePositiveRate( ) );
+    }
+
+    // Room for twice the current size, so a growing tree rebuilds the filter O(log n) times
+    private int bloomCapacity( ) {
+        return (int) Math.min( Integer.MAX_VALUE / 2, Math.max( 1024L, 2L * size( ) ) );
+    }
+
+    /**
+     * Find the item in the tree that matches x.
+     * @param x the item to search for.
+     * @return the matching item stored in the tree (which may be a different object than x), or null.
+     */
+    public AnyType get( AnyType x ) {
+        AVLNode<AnyType> t = root;
+        while( t != null ) {
+            int compareResult = x.compareTo( t.getData() );
+            if( compareResult < 0 )
+                t = t.getLeft();
+            else if( compareResult > 0 )
+                t = t.getRight();
+            else
+                return t.getData();
+        }
+        return null;
     }
 
     /**
@@ -121,6 +462,7 @@ public class AVLTree<AnyType extends Comparable<? super AnyType>> {
      */
     public void makeEmpty( ) {
         root = null;
+        resetBloomFilter( );
     }
 
     /**
@@ -143,28 +485,116 @@ public class AVLTree<AnyType extends Comparable<? super AnyType>> {
 
     private static final int ALLOWED_IMBALANCE = 1;
 
+    // Longest root-to-node path an AVL tree of up to Integer.MAX_VALUE nodes can have (1.44 * log2(n) < 46)
+    private static final int MAX_DEPTH = 64;
+
+    // Nodes on the path from the root to the node being changed, reused by every insert and remove
+    private final AVLNode<AnyType>[] path = newNodeArray( MAX_DEPTH );
+
+    // Create an array of nodes (a generic array can't be created directly)
+    @SuppressWarnings( "unchecked" )
+    private static <AnyType extends Comparable<? super AnyType>> AVLNode<AnyType>[ ] newNodeArray( int length ) {
+        return (AVLNode<AnyType>[ ]) new AVLNode<?>[ length ];
+    }
+
+    /**
+     * Rebalance the first depth nodes of the path buffer, bottom-up, relinking each
+     * balanced subtree into its parent. Once a subtree's height is unchanged nothing
+     * above it can be out of balance, so the remaining ancestors only get their sizes updated.
+     * @param depth the number of nodes on the path.
+     */
+    private void rebalancePath( int depth ) {
+        int i = depth - 1;
+        for( ; i >= 0; i-- ) {
+            AVLNode<AnyType> t = path[ i ];
+            int oldHeight = t.height;
+            AVLNode<AnyType> balanced = balanceAndSummarize( t );
+            if( i == 0 )
+                root = balanced;
+            else if( path[ i - 1 ].getLeft() == t )
+                path[ i - 1 ].setLeft( balanced );
+            else
+                path[ i - 1 ].setRight( balanced );
+            path[ i ] = null;
+            if( balanced == t && balanced.height == oldHeight )
+                break;
+        }
+        for( i--; i >= 0; i-- ) {
+            updateSize( path[ i ] );
+            if( aggregates != null )
+                summarize( path[ i ] );
+            path[ i ] = null;
+        }
+    }
+
+    /**
+     * Recompute the summaries of node t from its item and its children's summaries.
+     */
+    @SuppressWarnings( { "unchecked", "rawtypes" } )
+    private void summarize( AVLNode<AnyType> t ) {
+        if( t.summaries == null || t.summaries.length != aggregates.length )
+            t.summaries = new Object[ aggregates.length ];
+        for( int i = 0; i < aggregates.length; i++ ) {
+            Monoid m = aggregates[ i ];
+            Object summary = m.of( t.getData( ) );
+            if( t.getLeft( ) != null )
+                summary = m.combine( t.getLeft( ).summaries[ i ], summary );
+            if( t.getRight( ) != null )
+                summary = m.combine( summary, t.getRight( ).summaries[ i ] );
+            t.summaries[ i ] = summary;
+        }
+    }
+
+    // Balance t and refresh the summaries of the nodes that may have moved
+    private AVLNode<AnyType> balanceAndSummarize( AVLNode<AnyType> t ) {
+        AVLNode<AnyType> balanced = balance( t );
+        if( aggregates != null ) {
+            //a rotation only moves t and the nodes just below it, whose children are already summarized
+            if( balanced.getLeft( ) != null )
+                summarize( balanced.getLeft( ) );
+            if( balanced.getRight( ) != null )
+                summarize( balanced.getRight( ) );
+            summarize( balanced );
+        }
+        return balanced;
+    }
+
+    // Recompute the summaries of every node in subtree t, bottom-up
+    private void summarizeAll( AVLNode<AnyType> t ) {
+        if( t == null )
+            return;
+        summarizeAll( t.getLeft( ) );
+        summarizeAll( t.getRight( ) );
+        summarize( t );
+    }
+
     // Assume t is either balanced or within one of being balanced
-    private AVLNode<AnyType> balance(AVLNode<AnyType> t ) {
+    private static <AnyType extends Comparable<? super AnyType>> AVLNode<AnyType> balance(AVLNode<AnyType> t ) {
         if (t == null) return t;
         AVLNode<AnyType> left = t.getLeft();
         AVLNode<AnyType> right = t.getRight();
         if (height(left) - height(right) > ALLOWED_IMBALANCE) {
             if (height(left.getLeft()) >= height(left.getRight())) {
                 t = rotateWithLeftChild(t);
+                if (TreeStats.ENABLED) TreeStats.AVL.rotation(false);
             }
             else {
                 t = doubleWithLeftChild(t);
+                if (TreeStats.ENABLED) TreeStats.AVL.rotation(true);
             }
         }
         else if (height(right) - height(left) > ALLOWED_IMBALANCE) {
             if (height(right.getRight()) >= height(right.getLeft())) {
                 t = rotateWithRightChild(t);
+                if (TreeStats.ENABLED) TreeStats.AVL.rotation(false);
             }
             else {
                 t = doubleWithRightChild(t);
+                if (TreeStats.ENABLED) TreeStats.AVL.rotation(true);
             }
         }
-        t.height = Math.max(height(left), height(right)) + 1;
+        t.height = Math.max(height(t.getLeft()), height(t.getRight())) + 1;
+        updateSize(t);
         return t;
     }
 
@@ -188,29 +618,6 @@ public class AVLTree<AnyType extends Comparable<? super AnyType>> {
     }
 
 
-    /**
-     * Internal method to insert into a subtree.
-     * @param x the item to insert.
-     * @param t the node that roots the subtree.
-     * @return the new root of the subtree.
-     */
-    //Inserts x at in-order position in subtree with root t, or does nothing if it already exists in the subtree
-    private AVLNode<AnyType> insert(AnyType x, AVLNode<AnyType> t ) {
-        if (t == null) {
-            return new AVLNode<AnyType>(x);
-        }
-
-        int compareResult = x.compareTo(t.getData());
-
-        if (compareResult < 0) {
-            t.setLeft(insert(x, t.getLeft()));
-        }
-        else if (compareResult > 0) {
-            t.setRight(insert(x, t.getRight()));
-        }
-        return balance(t);
-    }
-
     /**
      * Internal method to find the smallest item in a subtree.
      * @param t the node that roots the tree.
@@ -218,8 +625,8 @@ public class AVLTree<AnyType extends Comparable<? super AnyType>> {
      */
     //Returns the lowest AVLNode in the subtree (the first left child found)
     private AVLNode<AnyType> findMin(AVLNode<AnyType> t ) {
-        if (t.getLeft() != null) return findMin(t.getLeft());
-        else return t;
+        while (t.getLeft() != null) t = t.getLeft();
+        return t;
     }
 
     /**
@@ -229,8 +636,8 @@ public class AVLTree<AnyType extends Comparable<? super AnyType>> {
      */
     //Returns the highest AVLNode in the subtree (the first right child found)
     private AVLNode<AnyType> findMax(AVLNode<AnyType> t ) {
-        if (t.getRight() != null) return findMax(t.getRight());
-        else return t;
+        while (t.getRight() != null) t = t.getRight();
+        return t;
     }
 
     /**
@@ -239,19 +646,28 @@ public class AVLTree<AnyType extends Comparable<? super AnyType>> {
      * @param t the node that roots the tree.
      * @return true if x is found in subtree.
      */
-    //Searches subtree with root t in pre-order for a match to x and returns true, or returns false if no match is found
+    //Searches subtree with root t by compareTo order for a match to x and returns true, or returns false if no match is found
     private boolean contains( AnyType x, AVLNode<AnyType> t ) {
-        if (t == null) return false;
+        long start = TreeStats.start();
+        int visited = 0;
+        boolean found = false;
+        while (t != null) {
+            int compareResult = x.compareTo(t.getData());
+            visited++;
 
-        int compareResult = x.compareTo(t.getData());
-
-        if (compareResult < 0) {
-            return contains(x, t.getLeft());
-        }
-        else if (compareResult > 0) {
-            return contains(x, t.getRight());
+            if (compareResult < 0) {
+                t = t.getLeft();
+            }
+            else if (compareResult > 0) {
+                t = t.getRight();
+            }
+            else {
+                found = true;
+                break;
+            }
         }
-        else return true;
+        if (TreeStats.ENABLED) TreeStats.AVL.record(TreeStats.Op.CONTAINS, visited, visited, start);
+        return found;
     }
 
     /**
@@ -275,22 +691,36 @@ public class AVLTree<AnyType extends Comparable<? super AnyType>> {
     /**
      * Return the height of node t, or -1, if null.
      */
-    private int height( AVLNode<AnyType> t ) {
+    private static int height( AVLNode<?> t ) {
         return t == null ? -1 : t.height;
     }
 
+    /**
+     * Return the number of nodes in the subtree rooted at t, or 0, if null.
+     */
+    private static int size( AVLNode<?> t ) {
+        return t == null ? 0 : t.size;
+    }
+
+    // Recompute the subtree size of t from its children
+    private static void updateSize( AVLNode<?> t ) {
+        t.size = size( t.getLeft() ) + size( t.getRight() ) + 1;
+    }
+
     /**
      * Rotate binary tree node with left child.
      * For AVL trees, this is a single rotation for case 1.
      * Update heights, then return new root.
      */
-    private AVLNode<AnyType> rotateWithLeftChild(AVLNode<AnyType> k2 ) {
+    private static <AnyType extends Comparable<? super AnyType>> AVLNode<AnyType> rotateWithLeftChild(AVLNode<AnyType> k2 ) {
         AVLNode<AnyType> rt = k2; //shallow copy
         AVLNode<AnyType> left = k2.getLeft(); //shallow copy
         rt.setLeft(left.getRight()); //set root's left child to its left child's right child
         left.setRight(rt); //set root's left child to root
-        rt.height = Math.max( height(left), height(rt.getRight())) + 1; //find max height of either the left side or right side of root and add 1
+        rt.height = Math.max( height(rt.getLeft()), height(rt.getRight())) + 1; //find max height of either the left side or right side of root and add 1
         left.height = Math.max( height(left.getLeft()), height(rt)) + 1; //find max height of either the left side or right side of left and add 1
+        updateSize(rt); //rt is now below left, so its size has to be fixed first
+        updateSize(left);
         return left;
     }
 
@@ -299,13 +729,15 @@ public class AVLTree<AnyType extends Comparable<? super AnyType>> {
      * For AVL trees, this is a single rotation for case 4.
      * Update heights, then return new root.
      */
-    private AVLNode<AnyType> rotateWithRightChild(AVLNode<AnyType> k1 ) {
+    private static <AnyType extends Comparable<? super AnyType>> AVLNode<AnyType> rotateWithRightChild(AVLNode<AnyType> k1 ) {
         AVLNode<AnyType> rt = k1; //shallow copy
         AVLNode<AnyType> right = k1.getRight(); //shallow copy
         rt.setRight(right.getLeft()); //set root's right child to its right child's left child
         right.setLeft(rt); //set root's right child to root
-        rt.height = Math.max( height(right), height(rt.getLeft())) + 1; //find max height of either the left side or right side of root and add 1
+        rt.height = Math.max( height(rt.getRight()), height(rt.getLeft())) + 1; //find max height of either the left side or right side of root and add 1
         right.height = Math.max( height(right.getRight()), height(rt)) + 1; //find max height of either the left side or right side of left and add 1
+        updateSize(rt); //rt is now below right, so its size has to be fixed first
+        updateSize(right);
         return right;
     }
 
@@ -315,7 +747,7 @@ public class AVLTree<AnyType extends Comparable<? super AnyType>> {
      * For AVL trees, this is a double rotation for case 2.
      * Update heights, then return new root.
      */
-    private AVLNode<AnyType> doubleWithLeftChild(AVLNode<AnyType> k3 ) {
+    private static <AnyType extends Comparable<? super AnyType>> AVLNode<AnyType> doubleWithLeftChild(AVLNode<AnyType> k3 ) {
 	    k3.setLeft(rotateWithRightChild(k3.getLeft()));
         return rotateWithLeftChild(k3);
     }
@@ -326,7 +758,7 @@ public class AVLTree<AnyType extends Comparable<? super AnyType>> {
      * For AVL trees, this is a double rotation for case 3.
      * Update heights, then return new root.
      */
-    private AVLNode<AnyType> doubleWithRightChild(AVLNode<AnyType> k1 ) {
+    private static <AnyType extends Comparable<? super AnyType>> AVLNode<AnyType> doubleWithRightChild(AVLNode<AnyType> k1 ) {
         k1.setRight(rotateWithLeftChild(k1.getRight()));
         return rotateWithRightChild(k1);
     }
@@ -344,12 +776,15 @@ public class AVLTree<AnyType extends Comparable<? super AnyType>> {
             left     = lt;
             right    = rt;
             height   = 0;
+            size     = 1 + AVLTree.size( lt ) + AVLTree.size( rt );
         }
 
         AnyType           data;      // The data in the node
         AVLNode<AnyType> left;         // Left child
         AVLNode<AnyType> right;        // Right child
         int               height;       // Height
+        int               size;         // Number of nodes in this subtree
+        Object[ ]         summaries;    // One summary per aggregate of the tree, for this subtree; null if none
 
         public void setData(AnyType data) {
             this.data = data;
@@ -389,20 +824,656 @@ public class AVLTree<AnyType extends Comparable<? super AnyType>> {
     //*********************
     // Additional Methods
 
-    //returns the count of all nodes in the AVL Tree
+    //returns the count of all nodes in the AVL Tree, kept in the root so this is O(1)
     public int size() {
-        return sizeHelp(root);
+        return size(root);
+    }
+
+    /**
+     * Return the number of items in the tree that are smaller than x.
+     * x does not need to be in the tree; if it is, this is its 0-based index in sorted order.
+     * @param x the item to rank.
+     * @return the number of items less than x.
+     */
+    public int rank( AnyType x ) {
+        int rank = 0;
+        AVLNode<AnyType> t = root;
+        while( t != null ) {
+            int compareResult = x.compareTo( t.getData() );
+            if( compareResult <= 0 )
+                t = t.getLeft();
+            else {
+                rank += size( t.getLeft() ) + 1;
+                t = t.getRight();
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Find the item at a given position in sorted order.
+     * @param k the 0-based index, so select( 0 ) is findMin( ).
+     * @return the k-th smallest item.
+     * @throws IndexOutOfBoundsException if k is not in [0, size( )).
+     */
+    public AnyType select( int k ) {
+        if( k < 0 || k >= size( ) )
+            throw new IndexOutOfBoundsException( "Index " + k + " out of bounds for size " + size( ) );
+        AVLNode<AnyType> t = root;
+        while( true ) {
+            int leftSize = size( t.getLeft() );
+            if( k < leftSize )
+                t = t.getLeft();
+            else if( k > leftSize ) {
+                k -= leftSize + 1;
+                t = t.getRight();
+            }
+            else
+                return t.getData();
+        }
     }
 
-    //recursive helper method used by size()
-    private int sizeHelp(AVLNode<AnyType> rt) {
-        if (rt == null) return 0;
-        if (rt.isLeaf()) return 1;
-        return sizeHelp(rt.getLeft()) + sizeHelp(rt.getRight()) + 1;
+    /**
+     * Count the items between lo and hi, both inclusive.
+     * @param lo the lower bound.
+     * @param hi the upper bound.
+     * @return the number of items x with lo <= x <= hi, or 0 if lo > hi.
+     */
+    public int countBetween( AnyType lo, AnyType hi ) {
+        if( lo.compareTo( hi ) > 0 )
+            return 0;
+        return countAtMost( hi ) - rank( lo );
+    }
+
+    // Return the number of items in the tree that are smaller than or equal to x
+    private int countAtMost( AnyType x ) {
+        int count = 0;
+        AVLNode<AnyType> t = root;
+        while( t != null ) {
+            if( x.compareTo( t.getData() ) < 0 )
+                t = t.getLeft();
+            else {
+                count += size( t.getLeft() ) + 1;
+                t = t.getRight();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Combine an aggregate over every item, in O(1).
+     * @param m one of the Monoids this tree was created with.
+     * @return the summary of the whole tree.
+     * @throws IllegalArgumentException if the tree doesn't keep m.
+     */
+    @SuppressWarnings( "unchecked" )
+    public <A> A aggregate( Monoid<? super AnyType, A> m ) {
+        int i = aggregateIndex( m );
+        return root == null ? m.identity( ) : (A) root.summaries[ i ];
+    }
+
+    /**
+     * Combine an aggregate over the items between lo and hi, both inclusive, in O(log n):
+     * whole subtrees inside the range contribute their stored summary, so only the nodes
+     * on the paths to lo and hi are looked at.
+     * @param m one of the Monoids this tree was created with.
+     * @return the summary of the items x with lo <= x <= hi, in sorted order.
+     * @throws IllegalArgumentException if the tree doesn't keep m.
+     */
+    @SuppressWarnings( "unchecked" )
+    public <A> A aggregate( Monoid<? super AnyType, A> m, AnyType lo, AnyType hi ) {
+        int i = aggregateIndex( m );
+        //find the highest node inside the range; every other node in range is below it
+        AVLNode<AnyType> t = root;
+        while( t != null ) {
+            if( lo.compareTo( t.getData( ) ) > 0 )
+                t = t.getRight( );
+            else if( hi.compareTo( t.getData( ) ) < 0 )
+                t = t.getLeft( );
+            else
+                break;
+        }
+        if( t == null )
+            return m.identity( );
+
+        //left of t: walk towards lo, taking every node >= lo along with its whole right subtree
+        A left = m.identity( );
+        for( AVLNode<AnyType> u = t.getLeft( ); u != null; ) {
+            if( lo.compareTo( u.getData( ) ) <= 0 ) {
+                A part = m.of( u.getData( ) );
+                if( u.getRight( ) != null )
+                    part = m.combine( part, (A) u.getRight( ).summaries[ i ] );
+                left = m.combine( part, left );
+                u = u.getLeft( );
+            }
+            else
+                u = u.getRight( );
+        }
+        //right of t: walk towards hi, taking every node <= hi along with its whole left subtree
+        A right = m.identity( );
+        for( AVLNode<AnyType> u = t.getRight( ); u != null; ) {
+            if( hi.compareTo( u.getData( ) ) >= 0 ) {
+                A part = m.of( u.getData( ) );
+                if( u.getLeft( ) != null )
+                    part = m.combine( (A) u.getLeft( ).summaries[ i ], part );
+                right = m.combine( right, part );
+                u = u.getRight( );
+            }
+            else
+                u = u.getLeft( );
+        }
+        return m.combine( m.combine( left, m.of( t.getData( ) ) ), right );
+    }
+
+    // Return the position of m among this tree's aggregates
+    private int aggregateIndex( Monoid<?, ?> m ) {
+        if( aggregates != null )
+            for( int i = 0; i < aggregates.length; i++ )
+                if( aggregates[ i ] == m )
+                    return i;
+        throw new IllegalArgumentException( "This tree was not created with that aggregate" );
+    }
+
+    //*********************
+
+    //*********************
+    // Optimistic probes
+    //
+    // Used by ConcurrentAVLTree to read without a lock while a writer may be changing
+    // the tree. A reader racing with a rotation can see a half-finished change, even a
+    // transient cycle, so these never take more than MAX_DEPTH steps and give up
+    // instead of failing. The caller must validate its lock stamp before trusting the result.
+
+    // Returned by probeEnd when it gives up
+    static final Object PROBE_FAILED = new Object( );
+
+    /**
+     * Search for x, giving up after MAX_DEPTH steps or at a node that isn't fully visible yet.
+     * Run without a lock while a writer may be changing the tree, compareTo can see
+     * stale or half-built nodes and throw; the caller must validate before trusting
+     * either the result or the exception.
+     * @return 1 if x was found, 0 if it wasn't, -1 if the probe gave up.
+     */
+    int probe( AnyType x ) {
+        AVLNode<AnyType> t = root;
+        for( int steps = 0; t != null; steps++ ) {
+            AnyType data = t.data;
+            if( steps == MAX_DEPTH || data == null )
+                return -1;
+            int compareResult = x.compareTo( data );
+            if( compareResult == 0 )
+                return 1;
+            t = compareResult < 0 ? t.left : t.right;
+        }
+        return 0;
+    }
+
+    /**
+     * Find the smallest (or largest) item, giving up like probe does.
+     * @return the item, null if the tree is empty, or PROBE_FAILED.
+     */
+    Object probeEnd( boolean largest ) {
+        AVLNode<AnyType> t = root;
+        if( t == null )
+            return null;
+        for( int steps = 0; steps < MAX_DEPTH; steps++ ) {
+            AVLNode<AnyType> next = largest ? t.right : t.left;
+            if( next == null )
+                return t.data == null ? PROBE_FAILED : t.data;
+            t = next;
+        }
+        return PROBE_FAILED;
     }
 
     //*********************
 
+    //*********************
+    // Set operations
+    //
+    // Built on join and split (Blelloch, Ferizovic and Sun, "Just Join for Parallel
+    // Ordered Sets"), so combining trees of sizes m <= n costs O(m log(n/m + 1)).
+    // The two recursive calls of each step work on disjoint nodes, so large
+    // subproblems are forked onto the common ForkJoinPool.
+    // The operations reuse the nodes of their inputs: both input trees are left
+    // empty. Use copy( ) first to keep an input; passing the same tree as both
+    // inputs is rejected, since both sides would then share nodes.
+    //
+    // The result keeps a's aggregates, updated inside join as rebalancePath does,
+    // so they add only O(1) work per node touched. If b keeps different aggregates
+    // its nodes are first summarized again in O(|b|). The result also takes over
+    // a's Bloom filter: it already covers every item of an intersection or a
+    // difference, while a union first adds b's items to it in O(|b|). So with a
+    // filter, or with mismatched aggregates, pass the smaller tree as b.
+
+    // Below this many nodes in both subtrees together, set operations stay on the current thread
+    private static final int PARALLEL_THRESHOLD = 1 << 12;
+
+    /**
+     * Return every item that is in a or b. Where both trees hold equal items, a's is kept.
+     * Both a and b are left empty.
+     */
+    public static <AnyType extends Comparable<? super AnyType>> AVLTree<AnyType> union( AVLTree<AnyType> a, AVLTree<AnyType> b ) {
+        AVLTree<AnyType> tree = prepare( a, b );
+        if( tree.bloom != null )
+            for( AnyType x : b )
+                tree.bloom.add( x );
+        tree.root = tree.union( a.root, b.root );
+        return finish( a, b, tree );
+    }
+
+    /**
+     * Return every item of a that is also in b, keeping a's items.
+     * Both a and b are left empty.
+     */
+    public static <AnyType extends Comparable<? super AnyType>> AVLTree<AnyType> intersection( AVLTree<AnyType> a, AVLTree<AnyType> b ) {
+        AVLTree<AnyType> tree = prepare( a, b );
+        tree.root = tree.intersection( a.root, b.root );
+        return finish( a, b, tree );
+    }
+
+    /**
+     * Return every item of a that is not in b.
+     * Both a and b are left empty.
+     */
+    public static <AnyType extends Comparable<? super AnyType>> AVLTree<AnyType> difference( AVLTree<AnyType> a, AVLTree<AnyType> b ) {
+        AVLTree<AnyType> tree = prepare( a, b );
+        tree.root = tree.difference( a.root, b.root );
+        return finish( a, b, tree );
+    }
+
+    /**
+     * Return a copy of the tree with the same shape, sharing the items but no nodes.
+     */
+    public AVLTree<AnyType> copy( ) {
+        AVLTree<AnyType> tree = aggregates == null ? new AVLTree<>( ) : new AVLTree<>( aggregates );
+        tree.root = copy( root );
+        if( bloom != null )
+            tree.useBloomFilter( bloom.hashFunction( ), bloom.falsePositiveRate( ) );
+        return tree;
+    }
+
+    /**
+     * Return a read-only copy of the items laid out for fast searching (see FrozenTree).
+     * Later changes to this tree don't affect it.
+     */
+    public FrozenTree<AnyType> freeze( ) {
+        Object[ ] items = new Object[ size( ) ];
+        int i = 0;
+        for( AnyType x : this )
+            items[ i++ ] = x;
+        return new FrozenTree<>( items );
+    }
+
+    // Make the (still empty) result tree of a set operation, with a's aggregates and a's Bloom filter
+    private static <AnyType extends Comparable<? super AnyType>> AVLTree<AnyType> prepare( AVLTree<AnyType> a, AVLTree<AnyType> b ) {
+        if( a == b )
+            throw new IllegalArgumentException( "Set operations need two different trees; copy( ) one first" );
+        AVLTree<AnyType> tree = a.aggregates == null ? new AVLTree<>( ) : new AVLTree<>( a.aggregates );
+        if( tree.aggregates != null && !Arrays.equals( a.aggregates, b.aggregates ) )
+            tree.summarizeAll( b.root );
+        tree.bloom = a.bloom;
+        tree.bloomRemoved = a.bloomRemoved;
+        return tree;
+    }
+
+    // Empty both inputs, which get fresh empty filters if they had one, and settle the result's filter
+    private static <AnyType extends Comparable<? super AnyType>> AVLTree<AnyType> finish( AVLTree<AnyType> a, AVLTree<AnyType> b, AVLTree<AnyType> tree ) {
+        int sizeOfA = a.size( );
+        a.root = null;
+        b.root = null;
+        a.resetBloomFilter( );
+        b.resetBloomFilter( );
+        if( tree.bloom != null ) {
+            //items of a that were dropped still have their bits set, just like removed ones
+            tree.bloomRemoved += Math.max( 0, sizeOfA - tree.size( ) );
+            if( tree.bloom.isFull( ) || tree.bloomRemoved > tree.size( ) / REBUILD_DIVISOR )
+                tree.rebuildBloomFilter( );
+        }
+        return tree;
+    }
+
+    private static <AnyType extends Comparable<? super AnyType>> AVLNode<AnyType> copy( AVLNode<AnyType> t ) {
+        if( t == null )
+            return null;
+        AVLNode<AnyType> c = new AVLNode<>( t.getData(), copy( t.getLeft() ), copy( t.getRight() ) );
+        c.height = t.height;
+        c.summaries = t.summaries == null ? null : t.summaries.clone( ); // summaries themselves are immutable
+        return c;
+    }
+
+    private AVLNode<AnyType> union( AVLNode<AnyType> t1, AVLNode<AnyType> t2 ) {
+        if( t1 == null )
+            return t2;
+        if( t2 == null )
+            return t1;
+        AVLNode<AnyType> left1 = t1.getLeft(), right1 = t1.getRight();
+        Split<AnyType> s = split( t2, t1.getData() ); // an equal item of t2 is dropped
+        AVLNode<AnyType>[ ] halves = both( size( t1 ) + size( t2 ),
+                ( ) -> union( left1, s.left ), ( ) -> union( right1, s.right ) );
+        return join( halves[ 0 ], t1, halves[ 1 ] );
+    }
+
+    private AVLNode<AnyType> intersection( AVLNode<AnyType> t1, AVLNode<AnyType> t2 ) {
+        if( t1 == null || t2 == null )
+            return null;
+        AVLNode<AnyType> left1 = t1.getLeft(), right1 = t1.getRight();
+        Split<AnyType> s = split( t2, t1.getData() );
+        AVLNode<AnyType>[ ] halves = both( size( t1 ) + size( t2 ),
+                ( ) -> intersection( left1, s.left ), ( ) -> intersection( right1, s.right ) );
+        return s.match != null ? join( halves[ 0 ], t1, halves[ 1 ] ) : join2( halves[ 0 ], halves[ 1 ] );
+    }
+
+    private AVLNode<AnyType> difference( AVLNode<AnyType> t1, AVLNode<AnyType> t2 ) {
+        if( t1 == null || t2 == null )
+            return t1;
+        AVLNode<AnyType> left2 = t2.getLeft(), right2 = t2.getRight();
+        Split<AnyType> s = split( t1, t2.getData() ); // an equal item of t1 is dropped
+        AVLNode<AnyType>[ ] halves = both( size( t1 ) + size( t2 ),
+                ( ) -> difference( s.left, left2 ), ( ) -> difference( s.right, right2 ) );
+        return join2( halves[ 0 ], halves[ 1 ] );
+    }
+
+    // Run two independent subproblems, forking the first onto the common pool when they are big enough
+    private static <AnyType extends Comparable<? super AnyType>> AVLNode<AnyType>[ ] both( int work,
+            Callable<AVLNode<AnyType>> first, Callable<AVLNode<AnyType>> second ) {
+        AVLNode<AnyType>[ ] results = newNodeArray( 2 );
+        try {
+            if( work < PARALLEL_THRESHOLD ) {
+                results[ 0 ] = first.call( );
+                results[ 1 ] = second.call( );
+            }
+            else {
+                ForkJoinTask<AVLNode<AnyType>> forked = ForkJoinTask.adapt( first ).fork( );
+                results[ 1 ] = second.call( );
+                results[ 0 ] = forked.join( );
+            }
+        } catch( RuntimeException e ) {
+            throw e;
+        } catch( Exception e ) {
+            throw new IllegalStateException( e ); // the set operations throw no checked exceptions
+        }
+        return results;
+    }
+
+    // Result of splitting a subtree around an item
+    private static class Split<AnyType extends Comparable<? super AnyType>> {
+        AVLNode<AnyType> left;  // Items less than the split item
+        AVLNode<AnyType> match; // Node holding an item equal to it, or null
+        AVLNode<AnyType> right; // Items greater than the split item
+    }
+
+    /**
+     * Internal method to split a subtree around x.
+     * Every node ends up in exactly one of the three parts.
+     */
+    private Split<AnyType> split( AVLNode<AnyType> t, AnyType x ) {
+        if( t == null )
+            return new Split<>( );
+        AVLNode<AnyType> left = t.getLeft(), right = t.getRight();
+        int compareResult = x.compareTo( t.getData() );
+        if( compareResult == 0 ) {
+            Split<AnyType> s = new Split<>( );
+            s.left = left;
+            s.match = t;
+            s.right = right;
+            return s;
+        }
+        if( compareResult < 0 ) {
+            Split<AnyType> s = split( left, x );
+            s.right = join( s.right, t, right );
+            return s;
+        }
+        Split<AnyType> s = split( right, x );
+        s.left = join( left, t, s.left );
+        return s;
+    }
+
+    /**
+     * Internal method to join two subtrees with a middle node k, where every item
+     * of tl is less than k's and every item of tr is greater.
+     * @return the root of the joined, balanced subtree.
+     */
+    private AVLNode<AnyType> join( AVLNode<AnyType> tl, AVLNode<AnyType> k, AVLNode<AnyType> tr ) {
+        if( height( tl ) > height( tr ) + ALLOWED_IMBALANCE )
+            return joinRight( tl, k, tr );
+        if( height( tr ) > height( tl ) + ALLOWED_IMBALANCE )
+            return joinLeft( tl, k, tr );
+        return link( tl, k, tr );
+    }
+
+    // tl is the taller side: walk down its right spine to a subtree about as tall as tr and hang k there
+    private AVLNode<AnyType> joinRight( AVLNode<AnyType> tl, AVLNode<AnyType> k, AVLNode<AnyType> tr ) {
+        if( height( tl ) <= height( tr ) + ALLOWED_IMBALANCE )
+            return link( tl, k, tr );
+        tl.setRight( joinRight( tl.getRight(), k, tr ) );
+        return balanceAndSummarize( tl );
+    }
+
+    // tr is the taller side: walk down its left spine to a subtree about as tall as tl and hang k there
+    private AVLNode<AnyType> joinLeft( AVLNode<AnyType> tl, AVLNode<AnyType> k, AVLNode<AnyType> tr ) {
+        if( height( tr ) <= height( tl ) + ALLOWED_IMBALANCE )
+            return link( tl, k, tr );
+        tr.setLeft( joinLeft( tl, k, tr.getLeft() ) );
+        return balanceAndSummarize( tr );
+    }
+
+    // Join two subtrees where every item of tl is less than every item of tr
+    private AVLNode<AnyType> join2( AVLNode<AnyType> tl, AVLNode<AnyType> tr ) {
+        if( tl == null )
+            return tr;
+        if( tr == null )
+            return tl;
+        // take the largest node out of tl and use it as the middle node
+        AVLNode<AnyType> max = tl;
+        while( max.getRight() != null )
+            max = max.getRight();
+        return join( removeMax( tl ), max, tr );
+    }
+
+    // Unlink the largest node of subtree t, returning the rebalanced rest
+    private AVLNode<AnyType> removeMax( AVLNode<AnyType> t ) {
+        if( t.getRight() == null )
+            return t.getLeft();
+        t.setRight( removeMax( t.getRight() ) );
+        return balanceAndSummarize( t );
+    }
+
+    // Make k the parent of tl and tr, fixing its height, size and summaries
+    private AVLNode<AnyType> link( AVLNode<AnyType> tl, AVLNode<AnyType> k, AVLNode<AnyType> tr ) {
+        k.setLeft( tl );
+        k.setRight( tr );
+        k.height = Math.max( height( tl ), height( tr ) ) + 1;
+        updateSize( k );
+        if( aggregates != null )
+            summarize( k );
+        return k;
+    }
+
+    //*********************
+    // Iteration
+
+    /**
+     * Return a lazy iterator over the tree in sorted order.
+     * Only the path to the next item is kept, so it uses O(log n) memory.
+     * The tree must not be changed while the iterator is in use.
+     */
+    @Override
+    public Iterator<AnyType> iterator( ) {
+        return new InOrderIterator( null, false, null, false, false );
+    }
+
+    /**
+     * Return a lazy iterator over the tree in reverse sorted order.
+     */
+    public Iterator<AnyType> descendingIterator( ) {
+        return new InOrderIterator( null, false, null, false, true );
+    }
+
+    @Override
+    public Spliterator<AnyType> spliterator( ) {
+        return Spliterators.spliterator( iterator( ), size( ),
+                Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT | Spliterator.NONNULL );
+    }
+
+    /**
+     * Return a view of the whole tree in reverse sorted order.
+     */
+    public Range descending( ) {
+        return new Range( null, false, null, false, true );
+    }
+
+    /**
+     * Return a view of the items less than hi.
+     */
+    public Range headSet( AnyType hi ) {
+        return headSet( hi, false );
+    }
+
+    /**
+     * Return a view of the items less than (or equal to, if inclusive) hi.
+     */
+    public Range headSet( AnyType hi, boolean inclusive ) {
+        return new Range( null, false, hi, inclusive, false );
+    }
+
+    /**
+     * Return a view of the items greater than or equal to lo.
+     */
+    public Range tailSet( AnyType lo ) {
+        return tailSet( lo, true );
+    }
+
+    /**
+     * Return a view of the items greater than (or equal to, if inclusive) lo.
+     */
+    public Range tailSet( AnyType lo, boolean inclusive ) {
+        return new Range( lo, inclusive, null, false, false );
+    }
+
+    /**
+     * Return a view of the items from lo (inclusive) to hi (exclusive).
+     */
+    public Range subSet( AnyType lo, AnyType hi ) {
+        return subSet( lo, true, hi, false );
+    }
+
+    /**
+     * Return a view of the items between lo and hi.
+     */
+    public Range subSet( AnyType lo, boolean loInclusive, AnyType hi, boolean hiInclusive ) {
+        return new Range( lo, loInclusive, hi, hiInclusive, false );
+    }
+
+    /**
+     * A bounded, lazily iterated view of the tree. Iterating it only visits the
+     * nodes on the way to the first item in range and the items in range.
+     * The view reads the tree each time it is iterated, so it reflects later changes.
+     */
+    public class Range implements Iterable<AnyType> {
+        private final AnyType lo, hi;        // null means unbounded
+        private final boolean loInclusive, hiInclusive;
+        private final boolean descending;
+
+        private Range( AnyType lo, boolean loInclusive, AnyType hi, boolean hiInclusive, boolean descending ) {
+            this.lo = lo;
+            this.loInclusive = loInclusive;
+            this.hi = hi;
+            this.hiInclusive = hiInclusive;
+            this.descending = descending;
+        }
+
+        @Override
+        public Iterator<AnyType> iterator( ) {
+            return new InOrderIterator( lo, loInclusive, hi, hiInclusive, descending );
+        }
+
+        @Override
+        public Spliterator<AnyType> spliterator( ) {
+            int characteristics = Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL;
+            if( !descending )
+                characteristics |= Spliterator.SORTED;
+            return Spliterators.spliteratorUnknownSize( iterator( ), characteristics );
+        }
+
+        /**
+         * Return the same range in the opposite order.
+         */
+        public Range descending( ) {
+            return new Range( lo, loInclusive, hi, hiInclusive, !descending );
+        }
+    }
+
+    // In-order iterator over an optionally bounded range, keeping the pending path on a stack
+    private class InOrderIterator implements Iterator<AnyType> {
+        private final AVLNode<AnyType>[] stack = newNodeArray( MAX_DEPTH );
+        private int top = 0;
+        private final AnyType lo, hi;
+        private final boolean loInclusive, hiInclusive;
+        private final boolean descending;
+
+        InOrderIterator( AnyType lo, boolean loInclusive, AnyType hi, boolean hiInclusive, boolean descending ) {
+            this.lo = lo;
+            this.loInclusive = loInclusive;
+            this.hi = hi;
+            this.hiInclusive = hiInclusive;
+            this.descending = descending;
+            //walk down towards the starting bound, stacking every node that is inside it
+            AVLNode<AnyType> t = root;
+            while( t != null ) {
+                if( descending ? aboveHi( t.getData() ) : belowLo( t.getData() ) )
+                    t = descending ? t.getLeft() : t.getRight();
+                else {
+                    stack[ top++ ] = t;
+                    t = descending ? t.getRight() : t.getLeft();
+                }
+            }
+            checkEnd( );
+        }
+
+        @Override
+        public boolean hasNext( ) {
+            return top > 0;
+        }
+
+        @Override
+        public AnyType next( ) {
+            if( top == 0 )
+                throw new NoSuchElementException( );
+            AVLNode<AnyType> n = stack[ --top ];
+            stack[ top ] = null;
+            //everything in the next subtree is already past the starting bound, so no checks are needed
+            AVLNode<AnyType> t = descending ? n.getLeft() : n.getRight();
+            while( t != null ) {
+                stack[ top++ ] = t;
+                t = descending ? t.getRight() : t.getLeft();
+            }
+            checkEnd( );
+            return n.getData();
+        }
+
+        // Items come out in order, so once the next one is past the ending bound the iteration is over
+        private void checkEnd( ) {
+            if( top > 0 && ( descending ? belowLo( stack[ top - 1 ].getData() ) : aboveHi( stack[ top - 1 ].getData() ) ) ) {
+                Arrays.fill( stack, 0, top, null );
+                top = 0;
+            }
+        }
+
+        private boolean belowLo( AnyType x ) {
+            if( lo == null )
+                return false;
+            int compareResult = x.compareTo( lo );
+            return compareResult < 0 || ( compareResult == 0 && !loInclusive );
+        }
+
+        private boolean aboveHi( AnyType x ) {
+            if( hi == null )
+                return false;
+            int compareResult = x.compareTo( hi );
+            return compareResult > 0 || ( compareResult == 0 && !hiInclusive );
+        }
+    }
+
     //********************
     // Getters and Setters
     //********************
@@ -413,5 +1484,6 @@ public class AVLTree<AnyType extends Comparable<? super AnyType>> {
 
     public void setRoot(AVLNode<AnyType> root) {
         this.root = root;
+        if (bloom != null) rebuildBloomFilter();
     }
 }
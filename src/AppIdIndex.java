@@ -0,0 +1,150 @@
+/************************************************************************
+ * @file: AppIdIndex.java
+ * @description: Hash index from Game.steam_appid to Game. Keys are kept in a plain int array with open
+ *               addressing (linear probing), so lookups are O(1) on average and never box an Integer.
+ * @author: Will S
+ * @date: October 18, 2026
+ ************************************************************************/
+
+import java.util.Arrays;
+
+/**
+ * Keys and values sit in two parallel arrays whose length is a power of two; a null
+ * value marks an empty slot, so every int is a valid key. A key's home slot comes
+ * from a multiplicative hash, which spreads the mostly sequential app ids evenly.
+ * Removal shifts later entries of the probe run back instead of leaving tombstones,
+ * so lookups never slow down after many removes.
+ * Not thread-safe.
+ */
+public class AppIdIndex {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int GOLDEN_RATIO = 0x9E3779B9; //2^32 / phi, the Fibonacci hashing multiplier
+
+    private int[] keys;
+    private Game[] values;
+    private int size;
+    private int shift; //32 - log2(capacity), so hash >>> shift is a slot index
+    private int resizeAt;
+
+    //constructor with the default capacity
+    public AppIdIndex() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    //constructor sized to hold expectedSize games without growing
+    public AppIdIndex(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    //Returns the Game with this app id, or null if there is none
+    public Game get(int appid) {
+        int mask = keys.length - 1;
+        for (int i = slot(appid); values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == appid) return values[i];
+        }
+        return null;
+    }
+
+    //Returns true if a Game with this app id is indexed
+    public boolean containsKey(int appid) {
+        return get(appid) != null;
+    }
+
+    //Indexes g under its app id, replacing (and returning) any Game already there
+    public Game put(Game g) {
+        int appid = g.getSteam_appid();
+        int mask = keys.length - 1;
+        int i = slot(appid);
+        for (; values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == appid) {
+                Game old = values[i];
+                values[i] = g;
+                return old;
+            }
+        }
+        keys[i] = appid;
+        values[i] = g;
+        if (++size > resizeAt) allocateAndRehash(keys.length * 2);
+        return null;
+    }
+
+    //Removes and returns the Game with this app id, or returns null if there is none
+    public Game remove(int appid) {
+        int mask = keys.length - 1;
+        for (int i = slot(appid); values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == appid) {
+                Game old = values[i];
+                deleteSlot(i);
+                return old;
+            }
+        }
+        return null;
+    }
+
+    //Removes g only if it is the Game indexed under its app id; returns true if it was
+    public boolean remove(Game g) {
+        if (get(g.getSteam_appid()) != g) return false;
+        remove(g.getSteam_appid());
+        return true;
+    }
+
+    //Returns the number of indexed Games
+    public int size() {
+        return size;
+    }
+
+    //Removes every Game
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    //Empties slot i, then moves back any later entry of the same probe run that could no longer be reached
+    private void deleteSlot(int i) {
+        int mask = keys.length - 1;
+        int hole = i;
+        for (int j = (i + 1) & mask; values[j] != null; j = (j + 1) & mask) {
+            int home = slot(keys[j]);
+            //the entry at j can fill the hole only if its home slot is not cyclically in (hole, j]
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                keys[hole] = keys[j];
+                values[hole] = values[j];
+                hole = j;
+            }
+        }
+        values[hole] = null;
+        size--;
+    }
+
+    private int slot(int appid) {
+        return (appid * GOLDEN_RATIO) >>> shift;
+    }
+
+    //Smallest power of two that holds expectedSize entries under a 2/3 load factor
+    private static int capacityFor(int expectedSize) {
+        long needed = Math.max(DEFAULT_CAPACITY, (long) expectedSize * 3 / 2 + 1);
+        if (needed > 1 << 30) throw new IllegalArgumentException("Too many entries: " + expectedSize);
+        return Integer.highestOneBit((int) needed - 1) << 1;
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Game[capacity];
+        shift = 32 - Integer.numberOfTrailingZeros(capacity);
+        resizeAt = capacity / 3 * 2;
+    }
+
+    private void allocateAndRehash(int capacity) {
+        int[] oldKeys = keys;
+        Game[] oldValues = values;
+        allocate(capacity);
+        int mask = capacity - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldValues[j] == null) continue;
+            int i = slot(oldKeys[j]);
+            while (values[i] != null) i = (i + 1) & mask;
+            keys[i] = oldKeys[j];
+            values[i] = oldValues[j];
+        }
+    }
+}
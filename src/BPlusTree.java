@@ -0,0 +1,491 @@
+/************************************************************************
+ * @file: BPlusTree.java
+ * @description: B+tree, useable for any "Comparable" object. Each node keeps its keys in one contiguous
+ *               array that is binary searched, so a lookup touches about log_fanout(n) nodes instead of the
+ *               log2(n) an AVLTree or BST chases; leaves are linked for in-order and range scans.
+ * @author: Will S
+ * @date: October 18, 2026
+ ************************************************************************/
+
+// BPlusTree class
+//
+// CONSTRUCTION: with no initializer (fanout 64), or with a fanout (maximum keys per node, at least 4)
+//
+// ******************PUBLIC OPERATIONS*********************
+// void insert( x )       --> Insert x
+// boolean contains( x )  --> Return true if x is present
+// boolean remove( x )    --> Return true if x was present
+// Comparable findMin( )  --> Return smallest item
+// Comparable findMax( )  --> Return largest item
+// boolean isEmpty( )     --> Return true if empty; else false
+// void makeEmpty( )      --> Remove all items
+// int size( )            --> Return number of items, O(1)
+// Iterator iterator( )   --> Iterate in sorted order along the leaves
+// Iterable range( lo, hi ) --> Items in [lo, hi], in sorted order
+// void checkBalance( )   --> Print "OOPS!!" if the structure is broken
+// ******************ERRORS********************************
+// Throws UnderflowException as appropriate
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Implements a B+tree. Every item lives in a leaf; inner nodes only hold separator
+ * keys, where child i of an inner node holds the items less than key i and child
+ * i + 1 the items greater than or equal to it. Every node but the root holds between
+ * fanout / 2 and fanout keys, so all leaves are at the same depth.
+ * Note that all "matching" is based on the compareTo method.
+ */
+public class BPlusTree<AnyType extends Comparable<? super AnyType>> implements Iterable<AnyType> {
+    private static final int DEFAULT_FANOUT = 64;
+    private static final int MIN_FANOUT = 4;
+
+    private final int fanout;  // most keys a node may hold
+    private final int minKeys; // fewest keys a node other than the root may hold
+    private Node root;
+    private Leaf first;        // leftmost leaf; it stays first for the life of the tree, since merges keep the left node
+    private int size;
+
+    // Set by insert when a child splits: the separator to add to the parent
+    private Object promoted;
+
+    // Construct the tree with the default fanout.
+    public BPlusTree( ) {
+        this( DEFAULT_FANOUT );
+    }
+
+    /**
+     * Construct the tree.
+     * @param fanout the most keys a node holds; larger nodes mean a shallower tree and more keys per cache line fetched.
+     */
+    public BPlusTree( int fanout ) {
+        if( fanout < MIN_FANOUT )
+            throw new IllegalArgumentException( "Fanout must be at least " + MIN_FANOUT + ", was " + fanout );
+        this.fanout = fanout;
+        this.minKeys = fanout / 2;
+        //makeEmpty( ) could be overridden, so the constructor sets up the empty tree itself
+        first = new Leaf( fanout );
+        root = first;
+    }
+
+    /**
+     * Insert into the tree; duplicates are ignored.
+     * @param x the item to insert.
+     */
+    public void insert( AnyType x ) {
+        Node sibling = insert( root, x );
+        if( sibling != null ) {
+            //the root split, so the tree grows one level at the top
+            Inner newRoot = new Inner( fanout );
+            newRoot.keys[ 0 ] = promoted;
+            newRoot.children[ 0 ] = root;
+            newRoot.children[ 1 ] = sibling;
+            newRoot.count = 1;
+            root = newRoot;
+        }
+        promoted = null;
+    }
+
+    /**
+     * Remove from the tree. Nothing is done if x is not found.
+     * @param x the item to remove.
+     * @return true if x was found and removed.
+     */
+    public boolean remove( AnyType x ) {
+        if( !remove( root, x ) )
+            return false;
+        if( root instanceof Inner && root.count == 0 )
+            root = ( (Inner) root ).children[ 0 ]; //the root's last two children merged, so the tree shrinks a level
+        return true;
+    }
+
+    /**
+     * Find an item in the tree.
+     * @param x the item to search for.
+     * @return true if x is found.
+     */
+    public boolean contains( AnyType x ) {
+        Node t = root;
+        while( t instanceof Inner )
+            t = ( (Inner) t ).children[ childIndex( t, x ) ];
+        return search( t, x ) >= 0;
+    }
+
+    /**
+     * Find the smallest item in the tree.
+     * @throws UnderflowException if the tree is empty.
+     */
+    @SuppressWarnings( "unchecked" )
+    public AnyType findMin( ) {
+        if( isEmpty( ) )
+            throw new UnderflowException( );
+        return (AnyType) first.keys[ 0 ];
+    }
+
+    /**
+     * Find the largest item in the tree.
+     * @throws UnderflowException if the tree is empty.
+     */
+    @SuppressWarnings( "unchecked" )
+    public AnyType findMax( ) {
+        if( isEmpty( ) )
+            throw new UnderflowException( );
+        Node t = root;
+        while( t instanceof Inner )
+            t = ( (Inner) t ).children[ t.count ];
+        return (AnyType) t.keys[ t.count - 1 ];
+    }
+
+    /**
+     * Test if the tree is logically empty.
+     */
+    public boolean isEmpty( ) {
+        return size == 0;
+    }
+
+    /**
+     * Make the tree logically empty.
+     */
+    public void makeEmpty( ) {
+        first = new Leaf( fanout );
+        root = first;
+        size = 0;
+    }
+
+    // returns the number of items, counted by insert and remove so this is O(1)
+    public int size( ) {
+        return size;
+    }
+
+    /**
+     * Iterate over the tree in sorted order by walking the leaf chain.
+     * The tree must not be changed while the iterator is in use.
+     */
+    @Override
+    public Iterator<AnyType> iterator( ) {
+        return new LeafIterator( first, 0, null );
+    }
+
+    /**
+     * Return the items x with lo <= x <= hi in sorted order. The leaf holding lo is found
+     * in one descent, and the scan then follows the leaf chain.
+     */
+    public Iterable<AnyType> range( AnyType lo, AnyType hi ) {
+        return ( ) -> {
+            Node t = root;
+            while( t instanceof Inner )
+                t = ( (Inner) t ).children[ childIndex( t, lo ) ];
+            int index = search( t, lo );
+            return new LeafIterator( (Leaf) t, index >= 0 ? index : -index - 1, hi );
+        };
+    }
+
+    /**
+     * Check that keys are sorted, separators bound their subtrees, nodes are neither
+     * over- nor underfull, every leaf is at the same depth, and the leaf chain holds every item.
+     * Prints "OOPS!!" if not.
+     */
+    public void checkBalance( ) {
+        int[ ] leafDepth = { -1 };
+        int counted = checkBalance( root, null, null, 0, leafDepth );
+        int chained = 0;
+        for( Leaf leaf = first; leaf != null; leaf = leaf.next )
+            chained += leaf.count;
+        if( counted != size || chained != size )
+            System.out.println( "OOPS!!" );
+    }
+
+    // Checks the subtree t whose keys should be in [lo, hi) (null means unbounded) and returns its number of items
+    private int checkBalance( Node t, Object lo, Object hi, int depth, int[ ] leafDepth ) {
+        if( t != root && ( t.count < minKeys || t.count > fanout ) )
+            System.out.println( "OOPS!!" );
+        for( int i = 0; i < t.count; i++ ) {
+            if( ( i > 0 && compare( t.keys[ i - 1 ], t.keys[ i ] ) >= 0 )
+                    || ( lo != null && compare( t.keys[ i ], lo ) < 0 )
+                    || ( hi != null && compare( t.keys[ i ], hi ) >= 0 ) )
+                System.out.println( "OOPS!!" );
+        }
+        if( t instanceof Leaf ) {
+            if( leafDepth[ 0 ] < 0 )
+                leafDepth[ 0 ] = depth;
+            else if( leafDepth[ 0 ] != depth )
+                System.out.println( "OOPS!!" );
+            return t.count;
+        }
+        Inner inner = (Inner) t;
+        int items = 0;
+        for( int i = 0; i <= t.count; i++ ) {
+            items += checkBalance( inner.children[ i ], i == 0 ? lo : t.keys[ i - 1 ], i == t.count ? hi : t.keys[ i ],
+                    depth + 1, leafDepth );
+        }
+        return items;
+    }
+
+    /**
+     * Internal method to insert into a subtree.
+     * @return the new right sibling of t if t split (with its separator left in promoted), or null.
+     */
+    private Node insert( Node t, AnyType x ) {
+        if( t instanceof Leaf ) {
+            int index = search( t, x );
+            if( index >= 0 )
+                return null; // Duplicate; do nothing
+            insertAt( t.keys, t.count, -index - 1, x );
+            t.count++;
+            size++;
+            return t.count > fanout ? splitLeaf( (Leaf) t ) : null;
+        }
+        Inner inner = (Inner) t;
+        int child = childIndex( t, x );
+        Node sibling = insert( inner.children[ child ], x );
+        if( sibling == null )
+            return null;
+        insertAt( inner.keys, t.count, child, promoted );
+        insertAt( inner.children, t.count + 1, child + 1, sibling );
+        t.count++;
+        return t.count > fanout ? splitInner( inner ) : null;
+    }
+
+    // Moves the upper half of an overfull leaf into a new leaf after it, and promotes the new leaf's first key
+    private Leaf splitLeaf( Leaf left ) {
+        Leaf right = new Leaf( fanout );
+        int mid = left.count / 2;
+        right.count = left.count - mid;
+        System.arraycopy( left.keys, mid, right.keys, 0, right.count );
+        Arrays.fill( left.keys, mid, left.count, null );
+        left.count = mid;
+        right.next = left.next;
+        left.next = right;
+        promoted = right.keys[ 0 ];
+        return right;
+    }
+
+    // Moves the upper half of an overfull inner node into a new node after it, and promotes the middle key
+    private Inner splitInner( Inner left ) {
+        Inner right = new Inner( fanout );
+        int mid = left.count / 2;
+        promoted = left.keys[ mid ];
+        right.count = left.count - mid - 1;
+        System.arraycopy( left.keys, mid + 1, right.keys, 0, right.count );
+        System.arraycopy( left.children, mid + 1, right.children, 0, right.count + 1 );
+        Arrays.fill( left.keys, mid, left.count, null );
+        Arrays.fill( left.children, mid + 1, left.count + 1, null );
+        left.count = mid;
+        return right;
+    }
+
+    /**
+     * Internal method to remove from a subtree, refilling any child that falls below minKeys.
+     * @return true if x was found and removed.
+     */
+    private boolean remove( Node t, AnyType x ) {
+        if( t instanceof Leaf ) {
+            int index = search( t, x );
+            if( index < 0 )
+                return false; // Not found; do nothing
+            removeAt( t.keys, t.count, index );
+            t.count--;
+            size--;
+            return true;
+        }
+        Inner inner = (Inner) t;
+        int child = childIndex( t, x );
+        if( !remove( inner.children[ child ], x ) )
+            return false;
+        if( inner.children[ child ].count < minKeys )
+            refill( inner, child );
+        return true;
+    }
+
+    // Brings child i of parent back up to minKeys by borrowing from a sibling that can spare a key, or else merging with one
+    private void refill( Inner parent, int i ) {
+        Node child = parent.children[ i ];
+        Node left = i > 0 ? parent.children[ i - 1 ] : null;
+        Node right = i < parent.count ? parent.children[ i + 1 ] : null;
+        if( left != null && left.count > minKeys )
+            borrowFromLeft( parent, i, left, child );
+        else if( right != null && right.count > minKeys )
+            borrowFromRight( parent, i, child, right );
+        else if( left != null )
+            merge( parent, i - 1, left, child );
+        else
+            merge( parent, i, child, right );
+    }
+
+    // Moves the last key of left to the front of child (through the parent, for inner nodes)
+    private void borrowFromLeft( Inner parent, int i, Node left, Node child ) {
+        if( child instanceof Leaf ) {
+            insertAt( child.keys, child.count, 0, left.keys[ left.count - 1 ] );
+            parent.keys[ i - 1 ] = child.keys[ 0 ];
+        }
+        else {
+            Inner c = (Inner) child, l = (Inner) left;
+            insertAt( c.keys, c.count, 0, parent.keys[ i - 1 ] );
+            insertAt( c.children, c.count + 1, 0, l.children[ l.count ] );
+            parent.keys[ i - 1 ] = l.keys[ l.count - 1 ];
+            l.children[ l.count ] = null;
+        }
+        left.keys[ left.count - 1 ] = null;
+        left.count--;
+        child.count++;
+    }
+
+    // Moves the first key of right to the end of child (through the parent, for inner nodes)
+    private void borrowFromRight( Inner parent, int i, Node child, Node right ) {
+        if( child instanceof Leaf ) {
+            child.keys[ child.count ] = right.keys[ 0 ];
+            removeAt( right.keys, right.count, 0 );
+            parent.keys[ i ] = right.keys[ 0 ];
+        }
+        else {
+            Inner c = (Inner) child, r = (Inner) right;
+            c.keys[ c.count ] = parent.keys[ i ];
+            c.children[ c.count + 1 ] = r.children[ 0 ];
+            parent.keys[ i ] = r.keys[ 0 ];
+            removeAt( r.keys, r.count, 0 );
+            removeAt( r.children, r.count + 1, 0 );
+        }
+        child.count++;
+        right.count--;
+    }
+
+    // Appends right (child i + 1 of parent) to left (child i) and drops right and its separator from the parent
+    private void merge( Inner parent, int i, Node left, Node right ) {
+        if( left instanceof Leaf ) {
+            System.arraycopy( right.keys, 0, left.keys, left.count, right.count );
+            left.count += right.count;
+            ( (Leaf) left ).next = ( (Leaf) right ).next;
+        }
+        else {
+            Inner l = (Inner) left, r = (Inner) right;
+            l.keys[ l.count ] = parent.keys[ i ];
+            System.arraycopy( r.keys, 0, l.keys, l.count + 1, r.count );
+            System.arraycopy( r.children, 0, l.children, l.count + 1, r.count + 1 );
+            l.count += r.count + 1;
+        }
+        removeAt( parent.keys, parent.count, i );
+        removeAt( parent.children, parent.count + 1, i + 1 );
+        parent.count--;
+    }
+
+    // Returns the index of the child of inner node t whose subtree would hold x: the number of separators <= x
+    private int childIndex( Node t, AnyType x ) {
+        Object[ ] keys = t.keys;
+        int lo = 0, hi = t.count;
+        while( lo < hi ) {
+            int mid = ( lo + hi ) >>> 1;
+            if( x.compareTo( key( keys[ mid ] ) ) < 0 )
+                hi = mid;
+            else
+                lo = mid + 1;
+        }
+        return lo;
+    }
+
+    // Binary search of leaf t: returns the index of x, or -(insertion point) - 1 if it is absent
+    private int search( Node t, AnyType x ) {
+        Object[ ] keys = t.keys;
+        int lo = 0, hi = t.count - 1;
+        while( lo <= hi ) {
+            int mid = ( lo + hi ) >>> 1;
+            int compareResult = x.compareTo( key( keys[ mid ] ) );
+            if( compareResult < 0 )
+                hi = mid - 1;
+            else if( compareResult > 0 )
+                lo = mid + 1;
+            else
+                return mid;
+        }
+        return -lo - 1;
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private AnyType key( Object o ) {
+        return (AnyType) o;
+    }
+
+    private int compare( Object a, Object b ) {
+        return key( a ).compareTo( key( b ) );
+    }
+
+    // Shifts array[index, count) up one place and stores value at index
+    private static void insertAt( Object[ ] array, int count, int index, Object value ) {
+        System.arraycopy( array, index, array, index + 1, count - index );
+        array[ index ] = value;
+    }
+
+    // Shifts array[index + 1, count) down one place over index and clears the freed slot
+    private static void removeAt( Object[ ] array, int count, int index ) {
+        System.arraycopy( array, index + 1, array, index, count - index - 1 );
+        array[ count - 1 ] = null;
+    }
+
+    //*********************************************************************************************************
+    // NODE CLASSES
+
+    // Keys are stored one past fanout so a node can overflow by one before it is split
+    private abstract static class Node {
+        final Object[ ] keys;
+        int count;
+
+        Node( int fanout ) {
+            keys = new Object[ fanout + 1 ];
+        }
+    }
+
+    private static final class Leaf extends Node {
+        Leaf next; // next leaf in key order, or null
+
+        Leaf( int fanout ) {
+            super( fanout );
+        }
+    }
+
+    private static final class Inner extends Node {
+        final Node[ ] children;
+
+        Inner( int fanout ) {
+            super( fanout );
+            children = new Node[ fanout + 2 ];
+        }
+    }
+
+    // Walks the leaf chain from a starting position, stopping after hi (inclusive) if hi is not null
+    private class LeafIterator implements Iterator<AnyType> {
+        private Leaf leaf;
+        private int index;
+        private final AnyType hi;
+
+        LeafIterator( Leaf leaf, int index, AnyType hi ) {
+            this.leaf = leaf;
+            this.index = index;
+            this.hi = hi;
+            skipExhausted( );
+        }
+
+        // Moves past leaves that have no more items, and stops the walk once an item is above hi
+        private void skipExhausted( ) {
+            while( leaf != null && index >= leaf.count ) {
+                leaf = leaf.next;
+                index = 0;
+            }
+            if( leaf != null && hi != null && key( leaf.keys[ index ] ).compareTo( hi ) > 0 )
+                leaf = null;
+        }
+
+        @Override
+        public boolean hasNext( ) {
+            return leaf != null;
+        }
+
+        @Override
+        public AnyType next( ) {
+            if( leaf == null )
+                throw new NoSuchElementException( );
+            AnyType x = key( leaf.keys[ index++ ] );
+            skipExhausted( );
+            return x;
+        }
+    }
+}
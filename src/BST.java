@@ -5,8 +5,17 @@
  * @date: September 24, 2025
  ************************************************************************/
 
-public class BST<T extends Comparable<T>>{
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+public class BST<T extends Comparable<T>> implements Iterable<T> {
     Node<T> root;
+    int size; //number of nodes, kept up to date by insert and remove so size() is O(1)
 
     // Implement the constructor
 
@@ -18,101 +27,317 @@ public class BST<T extends Comparable<T>>{
     //full constructor
     public BST(Node<T> root) {
         this.root = root;
+        this.size = sizeHelp(root);
+    }
+
+    //Builds a balanced BST from values already in strictly increasing order, in linear time
+    //Throws IllegalArgumentException if the values are not strictly increasing
+    public static <T extends Comparable<T>> BST<T> fromSorted(List<? extends T> sorted) {
+        ArrayList<T> values = new ArrayList<>(sorted);
+        for (int i = 1; i < values.size(); i++) {
+            if (values.get(i - 1).compareTo(values.get(i)) >= 0) {
+                throw new IllegalArgumentException("Values are not strictly increasing at index " + i);
+            }
+        }
+        BST<T> bst = new BST<>();
+        bst.root = buildBalanced(values, 0, values.size() - 1);
+        bst.size = values.size();
+        return bst;
+    }
+
+    //Recursive helper method for fromSorted(), the middle value becomes the root of each subtree
+    private static <T extends Comparable<T>> Node<T> buildBalanced(List<T> values, int lo, int hi) {
+        if (lo > hi) return null;
+        int mid = (lo + hi) >>> 1;
+        return new Node<T>(values.get(mid), buildBalanced(values, lo, mid - 1), buildBalanced(values, mid + 1, hi));
     }
 
     // Implement the insert method
     //Inserts a val at in-order position in BST, or doesn't if it already exists in BST
     public void insert(T val) {
-        if (isEmpty()) root = new Node<T>(val);
-        else insertHelp(root, val);
+        long start = TreeStats.start();
+        int visited = 0;
+        if (isEmpty()) {
+            root = new Node<T>(val);
+            size++;
+        }
+        else visited = insertHelp(root, val);
+        if (TreeStats.ENABLED) TreeStats.BST.record(TreeStats.Op.INSERT, visited, visited, start);
     }
 
-    //Recursive helper method for insert()
-    private Node<T> insertHelp(Node<T> rt, T val) {
-        if (rt == null) {
-            return new Node<T>(val);
-        }
-        if (rt.compareTo(val) > 0) {
-            rt.setLeft(insertHelp(rt.getLeft(), val));
-        } else if (rt.compareTo(val) < 0) {
-            rt.setRight(insertHelp(rt.getRight(), val));
+    //Helper method for insert(), walks down from rt and links a new Node where the search for val falls off the tree
+    //Returns the number of nodes compared against
+    private int insertHelp(Node<T> rt, T val) {
+        int visited = 0;
+        while (true) {
+            int compareResult = rt.compareTo(val);
+            visited++;
+            if (compareResult > 0) {
+                if (rt.getLeft() == null) {
+                    rt.setLeft(new Node<T>(val));
+                    size++;
+                    return visited;
+                }
+                rt = rt.getLeft();
+            } else if (compareResult < 0) {
+                if (rt.getRight() == null) {
+                    rt.setRight(new Node<T>(val));
+                    size++;
+                    return visited;
+                }
+                rt = rt.getRight();
+            } else {
+                return visited;
+            }
         }
-        return rt;
     }
 
     // Implement the search method
-    //Searches BST pre-order for a match to val and returns it, or returns null if no match is found
+    //Searches BST by compareTo order for a match to val and returns the matching Node, or returns null if no match is found
     public Node<T> search(T val) {
         if (isEmpty() || val == null) return null;
         else return searchHelp(root, val);
     }
 
-    //Recursive helper method for search()
+    //Searches BST by compareTo order for val and returns the matching Node only if its data also equals() val,
+    //or returns null otherwise (exact-match semantics, e.g. every field of a Game must match)
+    public Node<T> searchExact(T val) {
+        Node<T> match = search(val);
+        if (match == null || !match.getData().equals(val)) return null;
+        return match;
+    }
+
+    //Returns true if a value that compares equal to val is in the BST
+    public boolean containsKey(T val) {
+        return search(val) != null;
+    }
+
+    //Helper method for search(), walks down one path from rt following compareTo
     private Node<T> searchHelp(Node<T> rt, T val) {
-        if (rt.getData().equals(val)) {
-            return rt;
+        long start = TreeStats.start();
+        int visited = 0;
+        while (rt != null) {
+            int compareResult = val.compareTo(rt.getData());
+            visited++;
+            if (compareResult < 0) rt = rt.getLeft();
+            else if (compareResult > 0) rt = rt.getRight();
+            else break;
         }
-        if (rt.getLeft() != null) {
-            if (searchHelp(rt.getLeft(), val) != null) {
-                return rt;
-            }
-        }
-        if (rt.getRight() != null) {
-            if (searchHelp(rt.getRight(), val) != null) {
-                return rt;
-            }
-        }
-        return null;
+        if (TreeStats.ENABLED) TreeStats.BST.record(TreeStats.Op.CONTAINS, visited, visited, start);
+        return rt;
     }
 
     // Implement the remove method
-    //Searches BST pre-order for a match to val and removes and returns it, or returns null if no match is found
+    //Searches BST by compareTo order for a match to val and removes it, returning the root from before the removal
+    //(as the original recursive version did), or returns null if no match is found
     public Node<T> remove(T val) {
-        if (isEmpty() || search(val) == null) return null;
-        else {
-            Node<T> prevRoot = root;
-            root = removeHelp(root, val);
-            return prevRoot;
-        }
-    }
-
-    //Recursive helper method for remove()
-    private Node<T> removeHelp(Node<T> rt, T val) {
-        if (rt == null) return null;
-        if (rt.compareTo(val) > 0)
-            rt.setLeft(removeHelp(rt.getLeft(), val));
-        else if (rt.compareTo(val) < 0)
-            rt.setRight(removeHelp(rt.getRight(), val));
-        else {
-            if (rt.getLeft() == null) { //right child only, return right
-                return rt.getRight();
-            } else if (rt.getRight() == null) { //left child only, return left
-                return rt.getLeft();
-            } else { //both children, set rt to the lowest value in the right, then delete the lowest value from its previous position
-                Node<T> temp = getLowest(rt.getRight());
-                rt.setData(temp.data);
-                rt.setRight(removeHelp(rt.getRight(), temp.data));
+        if (isEmpty() || val == null) return null;
+        long start = TreeStats.start();
+        int visited = 0;
+        Node<T> parent = null;
+        Node<T> rt = root;
+        while (rt != null) {
+            int compareResult = rt.compareTo(val);
+            visited++;
+            if (compareResult == 0) break;
+            parent = rt;
+            rt = compareResult > 0 ? rt.getLeft() : rt.getRight();
+        }
+        if (rt == null) {
+            if (TreeStats.ENABLED) TreeStats.BST.record(TreeStats.Op.REMOVE, visited, visited, start);
+            return null;
+        }
+        Node<T> prevRoot = root;
+        int successorDepth = removeHelp(parent, rt);
+        size--;
+        if (TreeStats.ENABLED) TreeStats.BST.record(TreeStats.Op.REMOVE, visited, visited + successorDepth, start);
+        return prevRoot;
+    }
+
+    //Helper method for remove(), unlinks rt from parent (null if rt is the root)
+    //Returns how many nodes below rt were walked to find its replacement
+    private int removeHelp(Node<T> parent, Node<T> rt) {
+        int walked = 0;
+        if (rt.getLeft() != null && rt.getRight() != null) {
+            //both children, set rt to the lowest value in the right, then unlink the lowest node from its previous position
+            parent = rt;
+            Node<T> lowest = rt.getRight();
+            walked++;
+            while (lowest.getLeft() != null) {
+                parent = lowest;
+                lowest = lowest.getLeft();
+                walked++;
             }
+            rt.setData(lowest.getData());
+            rt = lowest;
         }
-        return rt;
+        //rt has at most one child now, which takes its place
+        Node<T> child = rt.getLeft() != null ? rt.getLeft() : rt.getRight();
+        if (parent == null) root = child;
+        else if (parent.getLeft() == rt) parent.setLeft(child);
+        else parent.setRight(child);
+        return walked;
     }
 
     //ITERATOR
 
+    //Returns a lazy iterator over the BST in-order. Only the pending path is kept on a stack, so memory is O(height).
+    //The BST must not be changed while the iterator is in use.
+    @Override
+    public Iterator<T> iterator() {
+        return new InOrderIterator(null, false, null, false, false);
+    }
+
+    //Returns a lazy iterator over the BST in reverse order
+    public Iterator<T> descendingIterator() {
+        return new InOrderIterator(null, false, null, false, true);
+    }
+
+    @Override
+    public Spliterator<T> spliterator() {
+        return Spliterators.spliterator(iterator(), size(),
+                Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT | Spliterator.NONNULL);
+    }
+
+    //Returns a view of the whole BST in reverse order
+    public Range descending() {
+        return new Range(null, false, null, false, true);
+    }
+
+    //Returns a view of the values less than hi
+    public Range headSet(T hi) {
+        return headSet(hi, false);
+    }
+
+    //Returns a view of the values less than (or equal to, if inclusive) hi
+    public Range headSet(T hi, boolean inclusive) {
+        return new Range(null, false, hi, inclusive, false);
+    }
+
+    //Returns a view of the values greater than or equal to lo
+    public Range tailSet(T lo) {
+        return tailSet(lo, true);
+    }
+
+    //Returns a view of the values greater than (or equal to, if inclusive) lo
+    public Range tailSet(T lo, boolean inclusive) {
+        return new Range(lo, inclusive, null, false, false);
+    }
+
+    //Returns a view of the values from lo (inclusive) to hi (exclusive)
+    public Range subSet(T lo, T hi) {
+        return subSet(lo, true, hi, false);
+    }
+
+    //Returns a view of the values between lo and hi
+    public Range subSet(T lo, boolean loInclusive, T hi, boolean hiInclusive) {
+        return new Range(lo, loInclusive, hi, hiInclusive, false);
+    }
+
+    //Bounded view of the BST, iterated lazily; it reads the BST each time it is iterated
+    public class Range implements Iterable<T> {
+        private final T lo, hi; //null means unbounded
+        private final boolean loInclusive, hiInclusive;
+        private final boolean descending;
+
+        private Range(T lo, boolean loInclusive, T hi, boolean hiInclusive, boolean descending) {
+            this.lo = lo;
+            this.loInclusive = loInclusive;
+            this.hi = hi;
+            this.hiInclusive = hiInclusive;
+            this.descending = descending;
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return new InOrderIterator(lo, loInclusive, hi, hiInclusive, descending);
+        }
+
+        @Override
+        public Spliterator<T> spliterator() {
+            int characteristics = Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL;
+            if (!descending) characteristics |= Spliterator.SORTED;
+            return Spliterators.spliteratorUnknownSize(iterator(), characteristics);
+        }
+
+        //Returns the same range in the opposite order
+        public Range descending() {
+            return new Range(lo, loInclusive, hi, hiInclusive, !descending);
+        }
+    }
+
+    //In-order iterator over an optionally bounded range, keeping the pending path on a stack
+    private class InOrderIterator implements Iterator<T> {
+        private final ArrayDeque<Node<T>> stack = new ArrayDeque<>();
+        private final T lo, hi;
+        private final boolean loInclusive, hiInclusive;
+        private final boolean descending;
+
+        InOrderIterator(T lo, boolean loInclusive, T hi, boolean hiInclusive, boolean descending) {
+            this.lo = lo;
+            this.loInclusive = loInclusive;
+            this.hi = hi;
+            this.hiInclusive = hiInclusive;
+            this.descending = descending;
+            //walk down towards the starting bound, stacking every node that is inside it
+            Node<T> rt = root;
+            while (rt != null) {
+                if (descending ? aboveHi(rt.getData()) : belowLo(rt.getData())) {
+                    rt = descending ? rt.getLeft() : rt.getRight();
+                } else {
+                    stack.push(rt);
+                    rt = descending ? rt.getRight() : rt.getLeft();
+                }
+            }
+            checkEnd();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty();
+        }
+
+        @Override
+        public T next() {
+            if (stack.isEmpty()) throw new NoSuchElementException();
+            Node<T> n = stack.pop();
+            //everything in the next subtree is already past the starting bound, so no checks are needed
+            Node<T> rt = descending ? n.getLeft() : n.getRight();
+            while (rt != null) {
+                stack.push(rt);
+                rt = descending ? rt.getRight() : rt.getLeft();
+            }
+            checkEnd();
+            return n.getData();
+        }
+
+        //values come out in order, so once the next one is past the ending bound the iteration is over
+        private void checkEnd() {
+            if (!stack.isEmpty() && (descending ? belowLo(stack.peek().getData()) : aboveHi(stack.peek().getData()))) {
+                stack.clear();
+            }
+        }
+
+        private boolean belowLo(T x) {
+            if (lo == null) return false;
+            int compareResult = x.compareTo(lo);
+            return compareResult < 0 || (compareResult == 0 && !loInclusive);
+        }
+
+        private boolean aboveHi(T x) {
+            if (hi == null) return false;
+            int compareResult = x.compareTo(hi);
+            return compareResult > 0 || (compareResult == 0 && !hiInclusive);
+        }
+    }
+
     //Prints BST in-order to command box
     public void print() {
         if (isEmpty()) return;
-        printHelp(root);
+        for (T val : this) System.out.print(val + "\n");
         System.out.println();
     }
 
-    //Recursive helper method for print()
-    private void printHelp(Node<T> rt) {
-        if (rt.getLeft() != null) printHelp(rt.getLeft());
-        System.out.print(rt.getData() + "\n");
-        if (rt.getRight() != null) printHelp(rt.getRight());
-    }
-
     //*************
     //OTHER METHODS
     //*************
@@ -125,37 +350,28 @@ public class BST<T extends Comparable<T>>{
     // Implement the clear method
     //clears the BST
     public void clear() {
-        clearHelp(root);
-    }
-
-    //recursive helper method used by clear()
-    private void clearHelp(Node<T> rt) {
-        if (rt.getLeft() != null) {
-            clearHelp(rt.getLeft());
-            rt.setLeft(null);
-        }
-        if (rt.getRight() != null) {
-            clearHelp(rt.getRight());
-            rt.setRight(null);
-        }
+        root = null;
+        size = 0;
     }
 
     // Implement the size method
     //returns the count of all nodes in the BST
     public int size() {
-        return sizeHelp(root);
+        return size;
     }
 
-    //recursive helper method used by size()
+    //helper method used by the root constructor, counts nodes with an explicit stack so a degenerate BST can't overflow the call stack
     private int sizeHelp(Node<T> rt) {
         if (rt == null) return 0;
-        if (rt.isLeaf()) return 1;
-        return sizeHelp(rt.getLeft()) + sizeHelp(rt.getRight()) + 1;
-    }
-
-    //Returns the lowest Node in the subtree (the first left child found)
-    private Node<T> getLowest(Node<T> rt) {
-        if (rt.getLeft() != null) return getLowest(rt.getLeft());
-        else return rt;
+        int count = 0;
+        ArrayDeque<Node<T>> stack = new ArrayDeque<>();
+        stack.push(rt);
+        while (!stack.isEmpty()) {
+            Node<T> n = stack.pop();
+            count++;
+            if (n.getLeft() != null) stack.push(n.getLeft());
+            if (n.getRight() != null) stack.push(n.getRight());
+        }
+        return count;
     }
 }
\ No newline at end of file
@@ -0,0 +1,200 @@
+/************************************************************************
+ * @file: BloomFilter.java
+ * @description: Blocked Bloom filter: a set of bits that can say "definitely not present" for most items that
+ *               were never added, in one cache-line read. AVLTree.useBloomFilter puts one in front of contains,
+ *               so lookups that miss skip the root-to-leaf descent.
+ * @author: Will S
+ * @date: October 18, 2026
+ ************************************************************************/
+
+import java.util.Arrays;
+import java.util.function.ToLongFunction;
+
+/**
+ * The bits are split into 512-bit blocks (8 longs, one 64-byte cache line). An
+ * item's hash picks one block, and all k of its bits are set inside that block, so
+ * add and mightContain touch a single cache line instead of k random ones. That
+ * costs a higher false-positive rate than a plain Bloom filter of the same size,
+ * because some blocks get more than their share of items, and the gap widens as
+ * the target rate falls. So the size is not a fixed multiple of the plain Bloom
+ * size: the constructor adds bits until a model of the blocked filter (items per
+ * block are Poisson distributed) reaches the target rate at capacity. Each of the k
+ * bit positions comes from its own multiply of the hash, so two items in one block
+ * rarely share all k bits.
+ *
+ * The hash function must agree with the set's idea of equality (for a tree, items
+ * that compareTo 0 must hash the same), or present items could be rejected. It does
+ * not need to be well spread: it is mixed before use.
+ *
+ * Items can't be taken out, so removals only make the filter weaker; AVLTree
+ * rebuilds it after enough of them. The hit and miss counters are filled in by the
+ * owner through recordLookup. Not thread-safe.
+ */
+public final class BloomFilter<T> {
+    private static final int BLOCK_WORDS = 8;
+    private static final int BLOCK_BITS = BLOCK_WORDS * 64;
+    private static final int MAX_HASHES = 16;
+    private static final double GROWTH = 1.02;         //step by which the sizing adds blocks until the model meets the rate
+    private static final long BIT_MULTIPLIER = 0x9E3779B97F4A7C15L; //2^64 / phi; each multiply gives the next bit position
+
+    private final ToLongFunction<? super T> hash;
+    private final double falsePositiveRate;
+    private final int capacity;
+    private final long[] words;
+    private final int blocks;
+    private final int hashes;
+    private int added;
+
+    private long rejected;       //mightContain said no
+    private long truePositives;  //mightContain said maybe and the item was present
+    private long falsePositives; //mightContain said maybe and the item was absent
+
+    //constructor for a filter that keeps about falsePositiveRate while it holds up to capacity items
+    public BloomFilter(ToLongFunction<? super T> hash, int capacity, double falsePositiveRate) {
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1: " + falsePositiveRate);
+        }
+        this.hash = hash;
+        this.falsePositiveRate = falsePositiveRate;
+        this.capacity = Math.max(1, capacity);
+        //start from the size and k of a plain Bloom filter, then add blocks until blocking is paid for
+        double bitsPerItem = -Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        this.hashes = (int) Math.max(1, Math.min(MAX_HASHES, Math.round(bitsPerItem * Math.log(2))));
+        long maxBlocks = Integer.MAX_VALUE / BLOCK_WORDS;
+        double size = Math.max(1, Math.ceil(this.capacity * bitsPerItem / BLOCK_BITS));
+        while (size < maxBlocks && expectedRate(this.capacity / Math.ceil(size), hashes) > falsePositiveRate) size *= GROWTH;
+        this.blocks = (int) Math.min(maxBlocks, Math.ceil(size));
+        this.words = new long[blocks * BLOCK_WORDS];
+    }
+
+    //Sets the bits of x
+    public void add(T x) {
+        long h = mix(hash.applyAsLong(x));
+        int base = block(h);
+        long bits = h;
+        for (int i = 0; i < hashes; i++) {
+            bits *= BIT_MULTIPLIER;
+            int bit = bit(bits);
+            words[base + (bit >>> 6)] |= 1L << bit;
+        }
+        added++;
+    }
+
+    //Returns false if x was definitely never added, true if it might have been
+    public boolean mightContain(T x) {
+        long h = mix(hash.applyAsLong(x));
+        int base = block(h);
+        long bits = h;
+        for (int i = 0; i < hashes; i++) {
+            bits *= BIT_MULTIPLIER;
+            int bit = bit(bits);
+            if ((words[base + (bit >>> 6)] & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    //Counts one lookup: rejected by the filter, or passed and then found or not found by the real search
+    public void recordLookup(boolean passed, boolean found) {
+        if (!passed) rejected++;
+        else if (found) truePositives++;
+        else falsePositives++;
+    }
+
+    //Clears every bit (but not the counters)
+    public void clear() {
+        Arrays.fill(words, 0);
+        added = 0;
+    }
+
+    //Returns true once more items were added than the filter was sized for
+    public boolean isFull() {
+        return added > capacity;
+    }
+
+    //Returns the number of adds since the filter was made or cleared
+    public int added() {
+        return added;
+    }
+
+    //Returns the number of items the filter was sized for
+    public int capacity() {
+        return capacity;
+    }
+
+    //Returns the false-positive rate the filter was sized for
+    public double falsePositiveRate() {
+        return falsePositiveRate;
+    }
+
+    //Returns the hash function
+    public ToLongFunction<? super T> hashFunction() {
+        return hash;
+    }
+
+    //Returns the size of the bit array in bytes
+    public long sizeInBytes() {
+        return (long) words.length * Long.BYTES;
+    }
+
+    //Returns the number of lookups the filter answered "definitely not present"
+    public long rejected() {
+        return rejected;
+    }
+
+    //Returns the number of lookups that passed the filter and found the item
+    public long truePositives() {
+        return truePositives;
+    }
+
+    //Returns the number of lookups that passed the filter but did not find the item
+    public long falsePositives() {
+        return falsePositives;
+    }
+
+    //Returns the share of lookups for absent items that the filter let through, or 0 if there were none
+    public double observedFalsePositiveRate() {
+        long misses = rejected + falsePositives;
+        return misses == 0 ? 0 : (double) falsePositives / misses;
+    }
+
+    //Copies the counters of another filter, so they survive a rebuild
+    void copyCounters(BloomFilter<?> from) {
+        rejected = from.rejected;
+        truePositives = from.truePositives;
+        falsePositives = from.falsePositives;
+    }
+
+    //Index of the first word of the block for hash h, from its high 32 bits
+    private int block(long h) {
+        return (int) (((h >>> 32) * blocks) >>> 32) * BLOCK_WORDS;
+    }
+
+    //Bit position in the block, 0 to BLOCK_BITS - 1, from the top bits of one of the multiplied hashes
+    private static int bit(long bits) {
+        return (int) (bits >>> (64 - 9)); //BLOCK_BITS = 2^9
+    }
+
+    //False-positive rate of a blocked filter with k bits per item and load items per block on average:
+    //the rate of a block holding l items, weighted by the Poisson chance of l
+    private static double expectedRate(double load, int k) {
+        double rate = 0;
+        double chance = Math.exp(-load); //P(l = 0)
+        double unset = 1 - 1.0 / BLOCK_BITS;
+        long last = (long) Math.ceil(load + 12 * Math.sqrt(load) + 20);
+        for (long l = 0; l <= last; l++) {
+            rate += chance * Math.pow(1 - Math.pow(unset, (double) k * l), k);
+            chance *= load / (l + 1);
+        }
+        return rate;
+    }
+
+    //MurmurHash3's 64-bit finalizer
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
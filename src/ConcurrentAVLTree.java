@@ -0,0 +1,181 @@
+/************************************************************************
+ * @file: ConcurrentAVLTree.java
+ * @description: AVLTree that many threads can share. Writers take a StampedLock's write lock; point reads
+ *               (contains, findMin, findMax, size) run lock-free on an optimistic stamp and only fall back to
+ *               the read lock when a writer got in the way; range scans share the read lock.
+ * @author: Will S
+ * @date: October 18, 2026
+ ************************************************************************/
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+
+/**
+ * Point reads never write to shared memory, so under a read-mostly load they scale with
+ * the number of cores instead of queueing on a lock. An optimistic read walks the tree
+ * with AVLTree's bounded probes, then checks that no write happened while it was
+ * walking; if one did, it retries under the read lock, which always succeeds. An
+ * exception thrown during the walk (a compareTo that met a half-changed node) counts
+ * as such a failed read unless the stamp is still valid.
+ * Range scans and rank queries hold the read lock for their whole walk, so they run in
+ * parallel with each other and wait only for writers.
+ *
+ * All matching is based on compareTo, as in AVLTree.
+ */
+public class ConcurrentAVLTree<AnyType extends Comparable<? super AnyType>> {
+    private final AVLTree<AnyType> tree = new AVLTree<>();
+    private final StampedLock lock = new StampedLock();
+
+    //Inserts x; duplicates are ignored
+    public void insert(AnyType x) {
+        long stamp = lock.writeLock();
+        try {
+            tree.insert(x);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    //Removes x, returning true if it was present
+    public boolean remove(AnyType x) {
+        long stamp = lock.writeLock();
+        try {
+            return tree.remove(x);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    //Returns true if an item equal to x is present
+    public boolean contains(AnyType x) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                int found = tree.probe(x);
+                if (found >= 0 && lock.validate(stamp)) return found == 1;
+            } catch (RuntimeException e) {
+                //compareTo may have seen a node a writer was still changing; only a clean read is trusted
+                if (lock.validate(stamp)) throw e;
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return tree.contains(x);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    //Returns the smallest item, or throws UnderflowException if the tree is empty
+    public AnyType findMin() {
+        return findEnd(false);
+    }
+
+    //Returns the largest item, or throws UnderflowException if the tree is empty
+    public AnyType findMax() {
+        return findEnd(true);
+    }
+
+    //Returns the number of items
+    public int size() {
+        long stamp = lock.tryOptimisticRead();
+        int size = tree.size();
+        if (stamp != 0 && lock.validate(stamp)) return size;
+        stamp = lock.readLock();
+        try {
+            return tree.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    //Returns true if there are no items
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    //Returns the number of items less than x
+    public int rank(AnyType x) {
+        long stamp = lock.readLock();
+        try {
+            return tree.rank(x);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    //Returns the number of items x with lo <= x <= hi
+    public int countBetween(AnyType lo, AnyType hi) {
+        long stamp = lock.readLock();
+        try {
+            return tree.countBetween(lo, hi);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    //Returns the items x with lo <= x <= hi in sorted order, copied out under the read lock
+    public List<AnyType> subSet(AnyType lo, AnyType hi) {
+        List<AnyType> items = new ArrayList<>();
+        forEachBetween(lo, hi, items::add);
+        return items;
+    }
+
+    //Passes the items x with lo <= x <= hi to action in sorted order. Writers wait until the scan is done,
+    //so action should be quick and must not change this tree.
+    public void forEachBetween(AnyType lo, AnyType hi, Consumer<? super AnyType> action) {
+        long stamp = lock.readLock();
+        try {
+            for (AnyType x : tree.subSet(lo, true, hi, true)) action.accept(x);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    //Passes every item to action in sorted order, under the read lock like forEachBetween
+    public void forEach(Consumer<? super AnyType> action) {
+        long stamp = lock.readLock();
+        try {
+            for (AnyType x : tree) action.accept(x);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    //Returns an independent AVLTree holding the current items
+    public AVLTree<AnyType> copy() {
+        long stamp = lock.readLock();
+        try {
+            return tree.copy();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    //Shared code for findMin and findMax: optimistic first, then under the read lock
+    @SuppressWarnings("unchecked")
+    private AnyType findEnd(boolean largest) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            Object end;
+            try {
+                end = tree.probeEnd(largest);
+            } catch (RuntimeException e) {
+                if (lock.validate(stamp)) throw e;
+                end = AVLTree.PROBE_FAILED;
+            }
+            if (end != AVLTree.PROBE_FAILED && lock.validate(stamp)) {
+                if (end == null) throw new UnderflowException();
+                return (AnyType) end;
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return largest ? tree.findMax() : tree.findMin();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/************************************************************************
+ * @file: FrozenTree.java
+ * @description: Read-only ordered set made by AVLTree.freeze(). The items are stored in one array in
+ *               Eytzinger (breadth-first) order, so a search is a loop over array indexes, k -> 2k or 2k + 1,
+ *               with no node objects to follow and the top levels of every search sharing the same cache lines.
+ * @author: Will S
+ * @date: October 18, 2026
+ ************************************************************************/
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Layout: eytzinger[1] is the root and the children of position k are 2k and 2k + 1,
+ * as in a binary heap (position 0 is unused). The descent never stops early: it
+ * always runs to the bottom, taking the step 2k + (x > item) that the JIT can turn
+ * into a conditional move, and the answer is recovered from the final index with a
+ * bit trick. The first few levels fill the first cache lines of the array, and the
+ * 16 descendants four levels below any position sit next to each other, so the part
+ * of the array a search needs next is close together rather than scattered over the heap.
+ *
+ * The sorted order is kept too (one more array of references), for floor, select and
+ * iteration. Note that all "matching" is based on the compareTo method.
+ */
+public final class FrozenTree<AnyType extends Comparable<? super AnyType>> implements Iterable<AnyType> {
+    private final Object[] eytzinger; // items in breadth-first order, 1-based
+    private final int[] rankAt;       // rankAt[k] is the sorted index of eytzinger[k]
+    private final Object[] sorted;    // items in sorted order
+    private final int n;
+
+    //Builds the layout from items already in strictly increasing order (as AVLTree.freeze() provides them)
+    FrozenTree(Object[] sorted) {
+        if (sorted.length >= 1 << 30) throw new IllegalArgumentException("Too many items to freeze: " + sorted.length);
+        this.sorted = sorted;
+        this.n = sorted.length;
+        this.eytzinger = new Object[n + 1];
+        this.rankAt = new int[n + 1];
+        //an in-order walk of the implicit tree visits positions in sorted order
+        int next = 0;
+        int k = 1;
+        int[] stack = new int[64];
+        int top = 0;
+        while (k <= n || top > 0) {
+            while (k <= n) {
+                stack[top++] = k;
+                k = 2 * k;
+            }
+            k = stack[--top];
+            eytzinger[k] = sorted[next];
+            rankAt[k] = next++;
+            k = 2 * k + 1;
+        }
+    }
+
+    //Builds a FrozenTree from items in strictly increasing compareTo order
+    //Throws IllegalArgumentException if they are not strictly increasing
+    public static <AnyType extends Comparable<? super AnyType>> FrozenTree<AnyType> fromSorted(List<? extends AnyType> items) {
+        Object[] sorted = items.toArray();
+        for (int i = 1; i < sorted.length; i++) {
+            if (items.get(i - 1).compareTo(items.get(i)) >= 0) {
+                throw new IllegalArgumentException("Items are not strictly increasing at index " + i);
+            }
+        }
+        return new FrozenTree<>(sorted);
+    }
+
+    //Returns the number of items
+    public int size() {
+        return n;
+    }
+
+    //Returns true if there are no items
+    public boolean isEmpty() {
+        return n == 0;
+    }
+
+    //Returns true if an item equal to x is present
+    public boolean contains(AnyType x) {
+        int k = lowerBound(x);
+        return k != 0 && x.compareTo(item(eytzinger[k])) == 0;
+    }
+
+    //Returns the smallest item >= x, or null if there is none
+    public AnyType ceiling(AnyType x) {
+        int k = lowerBound(x);
+        return k == 0 ? null : item(eytzinger[k]);
+    }
+
+    //Returns the largest item <= x, or null if there is none
+    public AnyType floor(AnyType x) {
+        int k = upperBound(x);
+        int r = k == 0 ? n : rankAt[k]; //sorted index of the first item > x
+        return r == 0 ? null : item(sorted[r - 1]);
+    }
+
+    //Returns the number of items less than x; if x is present, this is its 0-based index in sorted order
+    public int rank(AnyType x) {
+        int k = lowerBound(x);
+        return k == 0 ? n : rankAt[k];
+    }
+
+    //Returns the k-th smallest item (0-based)
+    //Throws IndexOutOfBoundsException if k is not in [0, size())
+    public AnyType select(int k) {
+        if (k < 0 || k >= n) throw new IndexOutOfBoundsException("Index " + k + " out of bounds for size " + n);
+        return item(sorted[k]);
+    }
+
+    //Returns the smallest item, or throws UnderflowException if empty
+    public AnyType findMin() {
+        if (n == 0) throw new UnderflowException();
+        return item(sorted[0]);
+    }
+
+    //Returns the largest item, or throws UnderflowException if empty
+    public AnyType findMax() {
+        if (n == 0) throw new UnderflowException();
+        return item(sorted[n - 1]);
+    }
+
+    //Iterates in sorted order
+    @Override
+    public Iterator<AnyType> iterator() {
+        return new Iterator<AnyType>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < n;
+            }
+
+            @Override
+            public AnyType next() {
+                if (next >= n) throw new NoSuchElementException();
+                return item(sorted[next++]);
+            }
+        };
+    }
+
+    //Returns the position of the first item >= x, or 0 if every item is < x
+    private int lowerBound(AnyType x) {
+        Object[] a = eytzinger;
+        int k = 1;
+        while (k <= n) {
+            k = 2 * k + (x.compareTo(item(a[k])) > 0 ? 1 : 0);
+        }
+        //the answer is the last position where the descent went left: drop the right turns taken after
+        //it (the trailing 1 bits) and then that left turn (one 0 bit)
+        return k >>> (Integer.numberOfTrailingZeros(~k) + 1);
+    }
+
+    //Returns the position of the first item > x, or 0 if every item is <= x
+    private int upperBound(AnyType x) {
+        Object[] a = eytzinger;
+        int k = 1;
+        while (k <= n) {
+            k = 2 * k + (x.compareTo(item(a[k])) >= 0 ? 1 : 0);
+        }
+        return k >>> (Integer.numberOfTrailingZeros(~k) + 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <AnyType> AnyType item(Object o) {
+        return (AnyType) o;
+    }
+}
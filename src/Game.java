@@ -5,6 +5,10 @@
  * @date: September 24, 2025
  ************************************************************************/
 
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Locale;
+
 public class Game implements Comparable<Game> {
     int steam_appid; //internal id used by Steam
     String name; //name of the videogame/software
@@ -17,6 +21,15 @@ public class Game implements Comparable<Game> {
     int metacritic; //score given by professional video game reviewers, accuracy of reviews is debatable but it's a good metric for our purposes
     double price_initial; //I think it's either the price of the game on launch day, or the price before any discounts
 
+    //sort key used by compareTo, rebuilt whenever metacritic, price_initial or name is set so comparisons never allocate
+    private long sortPrefix; //metacritic in the high 32 bits, price in cents in the low 32 bits
+    private String sortName; //name.toLowerCase(Locale.ROOT), cached
+
+    //release_date parsed once into days since 1970-01-01, rebuilt whenever release_date is set
+    public static final int UNDATED = Integer.MIN_VALUE; //releaseDay of a date that could not be parsed
+    private int releaseDay;
+    private static final String[] MONTHS = {"jan", "feb", "mar", "apr", "may", "jun", "jul", "aug", "sep", "oct", "nov", "dec"};
+
     //empty constructor
     public Game() {
         steam_appid = -1;
@@ -28,6 +41,8 @@ public class Game implements Comparable<Game> {
         total_negative = -1;
         metacritic = -1;
         price_initial = -1;
+        updateSortKey();
+        releaseDay = parseReleaseDay(release_date);
     }
 
     //full constructor
@@ -42,6 +57,60 @@ public class Game implements Comparable<Game> {
         this.review_score = review_score;
         this.metacritic = metacritic;
         this.price_initial = price_initial;
+        updateSortKey();
+        releaseDay = parseReleaseDay(release_date);
+    }
+
+    //Rebuilds the cached sort key. The prefix orders games by metacritic and then by whole cents of price.
+    //Math.round never reverses the order of two prices, so prefixes only tie when metacritic matches and the
+    //prices round to the same cent; compareTo then checks the exact prices before falling back to the name.
+    private void updateSortKey() {
+        long cents = Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, Math.round(price_initial * 100)));
+        //flipping the sign bit makes the signed cents sort correctly as an unsigned low half
+        sortPrefix = ((long) metacritic << 32) | (((int) cents ^ Integer.MIN_VALUE) & 0xFFFFFFFFL);
+        sortName = name == null ? null : name.toLowerCase(Locale.ROOT);
+    }
+
+    //Returns a hash that agrees with compareTo: Games that compare as 0 always get the same value
+    //(it leaves out the exact price, which compareTo only looks at when the rounded cents already match)
+    public long sortHash() {
+        return sortPrefix * 31 + (sortName == null ? 0 : sortName.hashCode());
+    }
+
+    //Parses a Steam release date into days since 1970-01-01, or returns UNDATED
+    //Accepts "2020-03-23", "Mar 23, 2020", "23 Mar, 2020" and "Mar 2020" (the 1st of the month); anything else,
+    //such as "Coming soon" or "Q2 2025", is UNDATED
+    static int parseReleaseDay(String date) {
+        if (date == null) return UNDATED;
+        int year = -1, month = -1, day = -1;
+        int i = 0, n = date.length();
+        while (i < n) {
+            char c = date.charAt(i);
+            if (c == ' ' || c == ',' || c == '-' || c == '.') {
+                i++;
+                continue;
+            }
+            int start = i;
+            if (c >= '0' && c <= '9') {
+                int value = 0;
+                while (i < n && date.charAt(i) >= '0' && date.charAt(i) <= '9' && i - start < 5) value = value * 10 + (date.charAt(i++) - '0');
+                if (i - start == 4 && year < 0) year = value;
+                else if (i - start <= 2 && year >= 0 && month < 0 && date.charAt(start - 1) == '-') month = value; //ISO month
+                else if (i - start <= 2 && day < 0) day = value;
+                else return UNDATED;
+            } else {
+                while (i < n && Character.isLetter(date.charAt(i))) i++;
+                if (i - start < 3 || month >= 0) return UNDATED;
+                for (int m = 0; m < MONTHS.length && month < 0; m++) {
+                    if (date.regionMatches(true, start, MONTHS[m], 0, 3)) month = m + 1;
+                }
+                if (month < 0 || i == start) return UNDATED;
+            }
+        }
+        if (year < 0 || month < 1 || month > 12) return UNDATED;
+        if (day < 0) day = 1;
+        if (day < 1 || day > YearMonth.of(year, month).lengthOfMonth()) return UNDATED;
+        return (int) LocalDate.of(year, month, day).toEpochDay();
     }
 
     //************************
@@ -61,6 +130,7 @@ public class Game implements Comparable<Game> {
 
     public void setName(String name) {
         this.name = name;
+        updateSortKey();
     }
 
     public int getN_achievements() {
@@ -77,6 +147,12 @@ public class Game implements Comparable<Game> {
 
     public void setRelease_date(String release_date) {
         this.release_date = release_date;
+        releaseDay = parseReleaseDay(release_date);
+    }
+
+    //Returns release_date as days since 1970-01-01 (LocalDate.toEpochDay), or UNDATED if it could not be parsed
+    public int getReleaseDay() {
+        return releaseDay;
     }
 
     public int getTotal_reviews() {
@@ -117,6 +193,7 @@ public class Game implements Comparable<Game> {
 
     public void setMetacritic(int metacritic) {
         this.metacritic = metacritic;
+        updateSortKey();
     }
 
     public double getPrice_initial() {
@@ -125,6 +202,7 @@ public class Game implements Comparable<Game> {
 
     public void setPrice_initial(double price_initial) {
         this.price_initial = price_initial;
+        updateSortKey();
     }
 
     //*********
@@ -146,23 +224,19 @@ public class Game implements Comparable<Game> {
     //this puts more relevant games on the right side of the BST and less relevant games on the left side
     /*if this were used in a larger program, it might be a good idea to swap the greater than and less than signs for metacritic
     because search goes from left to right, and people are more likely to search for games with high metacritic scores*/
+    //uses the cached sort key, so no Strings are allocated per comparison
     @Override
     public int compareTo(Game o) {
-        if (metacritic < o.getMetacritic()) {
+        if (sortPrefix != o.sortPrefix) {
+            return sortPrefix < o.sortPrefix ? -1 : 1;
+        }
+        if (price_initial < o.getPrice_initial()) {
             return -1;
         }
-        else if (metacritic > o.getMetacritic()) {
+        else if (price_initial > o.getPrice_initial()) {
             return 1;
         }
-        else {
-            if (price_initial < o.getPrice_initial()) {
-                return -1;
-            }
-            else if (price_initial > o.getPrice_initial()) {
-                return 1;
-            }
-            return name.toLowerCase().compareTo(o.getName().toLowerCase());
-        }
+        return sortName.compareTo(o.sortName);
     }
 
     //returns true if and only if all data values are equal
@@ -0,0 +1,77 @@
+/************************************************************************
+ * @file: GameCatalog.java
+ * @description: An AVLTree of Games together with an AppIdIndex on steam_appid. Every insert and remove goes
+ *               through the catalog, which keeps the two in step, so a Game can be found by its
+ *               compareTo order in O(log n) or by its app id in O(1).
+ * @author: Will S
+ * @date: October 18, 2026
+ ************************************************************************/
+
+/**
+ * The tree and the index always hold the same Games. The tree only keeps Games apart
+ * by compareTo, so two different Games could share an app id; the catalog refuses
+ * the second one, which keeps each app id pointing at exactly one Game in the tree.
+ * Not thread-safe.
+ */
+public class GameCatalog {
+    private final AVLTree<Game> tree;
+    private final AppIdIndex byAppId;
+
+    //constructor for an empty catalog
+    public GameCatalog() {
+        this(new AVLTree<>());
+    }
+
+    //constructor that takes over an existing tree (which must only be changed through the catalog from now on)
+    //Throws IllegalArgumentException if two Games of the tree share an app id
+    public GameCatalog(AVLTree<Game> tree) {
+        this.tree = tree;
+        this.byAppId = new AppIdIndex(tree.size());
+        for (Game g : tree) {
+            if (byAppId.put(g) != null) throw new IllegalArgumentException("Duplicate steam_appid " + g.getSteam_appid());
+        }
+    }
+
+    //Inserts g into the tree and the index; returns false and changes nothing if the tree already has an equal Game
+    //or another Game with the same app id
+    public boolean insert(Game g) {
+        if (byAppId.containsKey(g.getSteam_appid()) || !tree.insert(g)) return false;
+        byAppId.put(g);
+        return true;
+    }
+
+    //Removes the Game equal to g from the tree and the index; returns false if the tree has none
+    public boolean remove(Game g) {
+        Game stored = tree.get(g);
+        if (stored == null) return false;
+        tree.remove(stored);
+        byAppId.remove(stored);
+        return true;
+    }
+
+    //Returns true if the tree holds a Game equal to g (by compareTo)
+    public boolean contains(Game g) {
+        return tree.contains(g);
+    }
+
+    //Puts a Bloom filter in front of the tree, so contains answers most misses without a search;
+    //see AVLTree.useBloomFilter
+    public void useBloomFilter(double falsePositiveRate) {
+        tree.useBloomFilter(Game::sortHash, falsePositiveRate);
+    }
+
+    //Returns the Game with this Steam app id, or null if there is none
+    public Game getByAppId(int appid) {
+        return byAppId.get(appid);
+    }
+
+    //Returns the number of Games
+    public int size() {
+        return tree.size();
+    }
+
+    //Returns the underlying tree for ordered queries; it must not be changed directly
+    public AVLTree<Game> tree() {
+        return tree;
+    }
+}
@@ -0,0 +1,317 @@
+/************************************************************************
+ * @file: GameCsvParser.java
+ * @description: Reads Game records from the steam_games CSV by decoding bytes straight out of a reused
+ *               ByteBuffer, so the only objects made per row are the Game and its two String fields.
+ * @author: Will S
+ * @date: October 18, 2026
+ ************************************************************************/
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Parses the ten Game columns (steam_appid, name, n_achievements, release_date,
+ * total_reviews, total_positive, total_negative, review_score, metacritic,
+ * price_initial) from a FileChannel. The dataset has no quoted fields (commas inside
+ * cells were removed, see DataChanges.txt), so every comma is a separator.
+ * Trailing empty fields are ignored like String.split(",") ignores them, but a row with
+ * an eleventh non-empty field is reported as malformed instead of having it dropped.
+ * A parser keeps its buffers between calls, so reuse one instance for several files.
+ * It is not thread-safe.
+ */
+public class GameCsvParser {
+    private static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+    private static final int COLUMNS = 10;
+    // Powers of ten that are exact as doubles, used by the fast price path
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+    //Receives rows that could not be turned into a Game
+    public interface ErrorHandler {
+        //lineNumber is 1-based and counts the header; line is the raw row without its line terminator
+        void malformed(long lineNumber, String line, String reason);
+    }
+
+    // Read buffer; the ByteBuffer wraps the array and is only used to read from the channel
+    private byte[] bytes;
+    private ByteBuffer buffer;
+    // Start and end offset of each field of the current row, reused for every row
+    private final int[] fieldStart = new int[COLUMNS];
+    private final int[] fieldEnd = new int[COLUMNS];
+    // Set by parseInt/parseDouble instead of throwing, so bad rows cost no exception
+    private String error;
+    // Bytes of the channel taken up by the lines handled in the last parse call, and how many lines they were
+    private long consumed;
+    private long consumedLines;
+
+    //constructor with the default 64 KB read buffer
+    public GameCsvParser() {
+        this(DEFAULT_BUFFER_SIZE);
+    }
+
+    //constructor with a given read buffer size; the buffer grows if a single row is longer
+    public GameCsvParser(int bufferSize) {
+        bytes = new byte[Math.max(bufferSize, 64)];
+        buffer = ByteBuffer.wrap(bytes);
+    }
+
+    //Parses up to maxRows Games from the file (a negative maxRows means all of them), skipping the header line
+    //Returns the number of Games passed to sink
+    public int parse(Path file, int maxRows, Consumer<Game> sink, ErrorHandler onError) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return parse(channel, true, maxRows, sink, onError);
+        }
+    }
+
+    //Parses up to maxRows Games from the channel's current position (a negative maxRows means until end of file)
+    //Returns the number of Games passed to sink
+    public int parse(FileChannel channel, boolean skipHeader, int maxRows, Consumer<Game> sink, ErrorHandler onError) throws IOException {
+        return parse(channel, skipHeader, maxRows, false, 1, false, sink, onError);
+    }
+
+    //Like parse(file, maxRows, ...), but malformed rows count towards maxRows as well (empty lines still don't),
+    //the way the original Proj2 counted the non-empty lines it read. Returns the number of Games passed to sink.
+    public int parseRows(Path file, int maxRows, Consumer<Game> sink, ErrorHandler onError) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return parse(channel, true, maxRows, true, 1, false, sink, onError);
+        }
+    }
+
+    //Returns how many bytes of the channel the lines handled by the last parse call took up. The channel itself
+    //may have been read further ahead than this.
+    public long consumedBytes() {
+        return consumed;
+    }
+
+    //Returns how many lines (counting the header, empty and malformed lines) the last parse call handled
+    public long consumedLines() {
+        return consumedLines;
+    }
+
+    //Full form of parse. If countMalformed is set, malformed rows count towards maxRows along with the parsed ones.
+    //Lines are numbered from firstLineNumber for error reports. If completeLinesOnly is set,
+    //a last line with no line terminator is left unparsed (and not counted in consumedBytes), since the writer
+    //may still be in the middle of it.
+    int parse(FileChannel channel, boolean skipHeader, int maxRows, boolean countMalformed, long firstLineNumber,
+              boolean completeLinesOnly, Consumer<Game> sink, ErrorHandler onError) throws IOException {
+        long lineNumber = firstLineNumber - 1;
+        int parsed = 0;
+        int rows = 0;  //parsed, plus malformed if countMalformed
+        int pos = 0;   //start of the next unhandled line
+        int limit = 0; //end of the bytes read so far
+        boolean eof = false;
+        boolean skip = skipHeader;
+        consumed = 0;
+        consumedLines = 0;
+        while (maxRows < 0 || rows < maxRows) {
+            int scan = pos;
+            int end = indexOfNewline(scan, limit);
+            while (end < 0 && !eof) {
+                //move the partial line to the front of the buffer (or grow it if the line fills it), then read more
+                if (pos > 0) {
+                    System.arraycopy(bytes, pos, bytes, 0, limit - pos);
+                    limit -= pos;
+                    scan = limit;
+                    pos = 0;
+                }
+                else {
+                    scan = limit;
+                    if (limit == bytes.length) grow();
+                }
+                buffer.limit(bytes.length).position(limit);
+                int read = channel.read(buffer);
+                if (read < 0) eof = true;
+                else limit += read;
+                end = indexOfNewline(scan, limit);
+            }
+            if (end < 0 && (pos == limit || completeLinesOnly)) break; //nothing (complete) left
+            int lineEnd = end >= 0 ? end : limit;
+            lineNumber++;
+            if (skip) {
+                skip = false;
+            }
+            else if (parseLine(bytes, pos, lineEnd, lineNumber, sink, onError)) {
+                parsed++;
+                rows++;
+            }
+            else if (countMalformed && lineEnd > pos && !(lineEnd == pos + 1 && bytes[pos] == '\r')) {
+                rows++;
+            }
+            int next = end >= 0 ? end + 1 : limit;
+            consumed += next - pos;
+            consumedLines++;
+            pos = next;
+        }
+        return parsed;
+    }
+
+    //Parses every line in bytes[from, to), where the last line may have no terminator. Lines are numbered from
+    //firstLineNumber. Returns the number of lines seen, counting empty and malformed ones.
+    int parseLines(byte[] bytes, int from, int to, long firstLineNumber, Consumer<Game> sink, ErrorHandler onError) {
+        int lines = 0;
+        int pos = from;
+        while (pos < to) {
+            int end = pos;
+            while (end < to && bytes[end] != '\n') end++;
+            parseLine(bytes, pos, end, firstLineNumber + lines, sink, onError);
+            lines++;
+            pos = end + 1;
+        }
+        return lines;
+    }
+
+    //Parses the line in bytes[start, end) (without its '\n') and passes the Game to sink, or the line to onError if
+    //it is malformed. Empty lines are ignored. Returns true if a Game was passed to sink.
+    private boolean parseLine(byte[] bytes, int start, int end, long lineNumber, Consumer<Game> sink, ErrorHandler onError) {
+        if (end > start && bytes[end - 1] == '\r') end--;
+        if (end == start) return false;
+        Game game = parseRow(bytes, start, end);
+        if (game != null) {
+            sink.accept(game);
+            return true;
+        }
+        if (onError != null) {
+            onError.malformed(lineNumber, new String(bytes, start, end - start, StandardCharsets.UTF_8), error);
+        }
+        return false;
+    }
+
+    //Returns the index of the first '\n' in bytes[from, to), or -1
+    private int indexOfNewline(int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (bytes[i] == '\n') return i;
+        }
+        return -1;
+    }
+
+    //Decodes one row in bytes[start, end) into a Game, or returns null and sets error if it is malformed.
+    //Trailing empty fields are ignored, as String.split(",") drops them.
+    Game parseRow(byte[] bytes, int start, int end) {
+        while (end > start && bytes[end - 1] == ',') end--;
+        int field = 0;
+        fieldStart[0] = start;
+        for (int i = start; i < end; i++) {
+            if (bytes[i] == ',') {
+                if (field == COLUMNS - 1) {
+                    error = "more than " + COLUMNS + " columns";
+                    return null;
+                }
+                fieldEnd[field++] = i;
+                fieldStart[field] = i + 1;
+            }
+        }
+        fieldEnd[field] = end;
+        if (field != COLUMNS - 1) {
+            error = "expected " + COLUMNS + " columns, found " + (field + 1);
+            return null;
+        }
+        error = null;
+        int steamAppid = parseInt(bytes, 0);
+        int nAchievements = parseInt(bytes, 2);
+        int totalReviews = parseInt(bytes, 4);
+        int totalPositive = parseInt(bytes, 5);
+        int totalNegative = parseInt(bytes, 6);
+        int reviewScore = parseInt(bytes, 7);
+        int metacritic = parseInt(bytes, 8);
+        double priceInitial = parseDouble(bytes, 9);
+        if (error != null) return null;
+        return new Game(steamAppid, string(bytes, 1), nAchievements, string(bytes, 3), totalReviews,
+                totalPositive, totalNegative, reviewScore, metacritic, priceInitial);
+    }
+
+    //Decodes field as a (possibly signed) int, setting error instead of throwing if it isn't one
+    private int parseInt(byte[] bytes, int field) {
+        int i = fieldStart[field];
+        int end = fieldEnd[field];
+        boolean negative = false;
+        if (i < end && (bytes[i] == '-' || bytes[i] == '+')) {
+            negative = bytes[i] == '-';
+            i++;
+        }
+        if (i == end) return fail(field);
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9) return fail(field);
+            value = value * 10 + digit;
+            if (value > (long) Integer.MAX_VALUE + 1) return fail(field);
+        }
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) return fail(field);
+        return (int) value;
+    }
+
+    //Decodes field as a double. Plain decimals with up to 15 significant digits are converted exactly from the
+    //digits (the result is the same as Double.parseDouble); anything else falls back to Double.parseDouble.
+    private double parseDouble(byte[] bytes, int field) {
+        int i = fieldStart[field];
+        int end = fieldEnd[field];
+        boolean negative = false;
+        if (i < end && (bytes[i] == '-' || bytes[i] == '+')) {
+            negative = bytes[i] == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0; //significant digits, leading zeros don't count
+        boolean sawDigit = false;
+        int fractionDigits = -1; //-1 until the decimal point is seen
+        for (; i < end; i++) {
+            byte b = bytes[i];
+            if (b == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            }
+            else if (b >= '0' && b <= '9') {
+                mantissa = mantissa * 10 + (b - '0');
+                sawDigit = true;
+                if (mantissa != 0) digits++;
+                if (fractionDigits >= 0) fractionDigits++;
+                if (digits > 15) return slowParseDouble(bytes, field);
+            }
+            else {
+                return slowParseDouble(bytes, field);
+            }
+        }
+        if (!sawDigit) {
+            fail(field);
+            return 0;
+        }
+        if (fractionDigits >= POWERS_OF_TEN.length) return slowParseDouble(bytes, field);
+        //both numbers are exact doubles, so the division is correctly rounded
+        double value = fractionDigits > 0 ? mantissa / POWERS_OF_TEN[fractionDigits] : mantissa;
+        return negative ? -value : value;
+    }
+
+    //Fallback for numbers the fast path doesn't handle (exponents, many digits)
+    private double slowParseDouble(byte[] bytes, int field) {
+        try {
+            return Double.parseDouble(string(bytes, field));
+        } catch (NumberFormatException e) {
+            fail(field);
+            return 0;
+        }
+    }
+
+    //Records that field is malformed and returns a placeholder value
+    private int fail(int field) {
+        if (error == null) error = "column " + (field + 1) + " is not a number";
+        return 0;
+    }
+
+    //Decodes field as a UTF-8 String
+    private String string(byte[] bytes, int field) {
+        return new String(bytes, fieldStart[field], fieldEnd[field] - fieldStart[field], StandardCharsets.UTF_8);
+    }
+
+    //Doubles the read buffer, keeping the bytes already read
+    private void grow() {
+        bytes = Arrays.copyOf(bytes, bytes.length * 2);
+        buffer = ByteBuffer.wrap(bytes);
+    }
+}
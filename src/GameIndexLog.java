@@ -0,0 +1,422 @@
+/************************************************************************
+ * @file: GameIndexLog.java
+ * @description: Durable AVLTree of Games: every insert and remove is appended to a write-ahead log
+ *               before it is acknowledged, the log is replayed on startup, and it is compacted into a
+ *               fresh GameSnapshot once it grows past a threshold.
+ * @author: Will S
+ * @date: October 18, 2026
+ ************************************************************************/
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Log record layout (big-endian):
+ *
+ *   int length of the payload
+ *   payload: byte op (1 = insert, 2 = remove), the seven int fields of the Game in
+ *            GameSnapshot column order, double price_initial, then name and
+ *            release_date each as an int byte count followed by UTF-8 bytes
+ *   int CRC32 of the payload
+ *
+ * Group commit: a writer applies its change to the tree and appends the record to an
+ * in-memory batch under the lock, then waits until the batch is on disk. The first
+ * waiter to find no write in progress takes the whole batch, writes it and calls
+ * fsync once for everyone in it, while new records collect in a second buffer. Under
+ * concurrent load many updates share one fsync; a lone writer still gets one per update.
+ * If the write fails, the log is cut back to its last durable length, every change
+ * not yet on disk is undone in the tree, newest first, and the log refuses further
+ * use. So a change the caller was told failed is gone from memory and, as long as
+ * that truncate works, from disk too. If the truncate fails as well (the disk is
+ * usually gone by then), complete records of the failed batch that did reach the
+ * file will be replayed by the next open.
+ *
+ * Recovery loads the snapshot and replays the log on top of it. A torn record at the
+ * end of the log (from a crash mid-write) is cut off. Only changes are logged, and
+ * each Game ends up as the last logged change for it says, whatever the snapshot
+ * held, so replaying a log over a snapshot taken part way through it is harmless.
+ * That is what lets a checkpoint write the snapshot without the lock: it copies the
+ * tree under the lock, saves the copy while writers carry on, and then swaps in a
+ * new log holding only the records appended since the copy.
+ *
+ * All methods are thread-safe. Changes are visible to readers as soon as they are
+ * applied, which can be slightly before insert/remove return.
+ */
+public class GameIndexLog implements Closeable {
+    private static final byte INSERT = 1;
+    private static final byte REMOVE = 2;
+    private static final int INITIAL_BATCH_SIZE = 1 << 16;
+    private static final long DEFAULT_COMPACTION_THRESHOLD = 64L << 20; //64 MB of log
+    private static final String SNAPSHOT_NAME = "games.snapshot";
+    private static final String LOG_NAME = "games.log";
+
+    private final Path snapshotFile;
+    private final Path logFile;
+    private FileChannel log; //replaced by a checkpoint, only while no batch is being written
+    private final long compactionThreshold;
+    private final AVLTree<Game> tree;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushed = lock.newCondition();
+    private ByteBuffer pending = ByteBuffer.allocate(INITIAL_BATCH_SIZE); //records not yet handed to a flush
+    private ByteBuffer spare = ByteBuffer.allocate(INITIAL_BATCH_SIZE);   //swapped in while a batch is written
+    private long appendedSeq;  //sequence number of the last record appended
+    private long durableSeq;   //sequence number of the last record known to be on disk
+    private boolean flushing;  //a writer is writing a batch with the lock released
+    private boolean checkpointing; //a checkpoint is saving a snapshot with the lock released
+    private final ArrayDeque<Game> undo = new ArrayDeque<>();    //Games changed but not yet on disk, oldest first
+    private final ArrayDeque<Byte> undoOps = new ArrayDeque<>(); //whether each of those was inserted or removed
+    private long logSize;      //bytes in the log file
+    private IOException failure; //set if a flush failed; the log can't be trusted after that
+    private boolean closed;
+
+    private GameIndexLog(Path snapshotFile, Path logFile, FileChannel log, long compactionThreshold, AVLTree<Game> tree, long logSize) {
+        this.snapshotFile = snapshotFile;
+        this.logFile = logFile;
+        this.log = log;
+        this.compactionThreshold = compactionThreshold;
+        this.tree = tree;
+        this.logSize = logSize;
+    }
+
+    //Opens the index stored in directory (games.snapshot and games.log), creating it if it doesn't exist
+    public static GameIndexLog open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        return open(directory.resolve(SNAPSHOT_NAME), directory.resolve(LOG_NAME), DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    //Opens the index, loading the snapshot (if there is one) and replaying the log on top of it.
+    //The log is compacted into a new snapshot whenever it grows past compactionThreshold bytes.
+    public static GameIndexLog open(Path snapshotFile, Path logFile, long compactionThreshold) throws IOException {
+        AVLTree<Game> tree = Files.exists(snapshotFile) ? GameSnapshot.load(snapshotFile) : new AVLTree<>();
+        FileChannel log = FileChannel.open(logFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long validSize = replay(log, tree);
+            if (validSize < log.size()) {
+                log.truncate(validSize); //drop a torn record left by a crash
+                log.force(true);
+            }
+            log.position(validSize);
+            return new GameIndexLog(snapshotFile, logFile, log, compactionThreshold, tree, validSize);
+        } catch (IOException | RuntimeException e) {
+            log.close();
+            throw e;
+        }
+    }
+
+    //Inserts g and returns once the change is durable; returns false (and logs nothing) if an equal Game is present
+    public boolean insert(Game g) throws IOException {
+        return apply(INSERT, g);
+    }
+
+    //Removes g and returns once the change is durable; returns false (and logs nothing) if no equal Game is present
+    public boolean remove(Game g) throws IOException {
+        return apply(REMOVE, g);
+    }
+
+    //Returns true if a Game equal to g is in the index
+    public boolean contains(Game g) {
+        lock.lock();
+        try {
+            return tree.contains(g);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //Returns the stored Game equal to g (by compareTo), or null if there is none
+    public Game get(Game g) {
+        lock.lock();
+        try {
+            return tree.get(g);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //Returns the number of Games in the index
+    public int size() {
+        lock.lock();
+        try {
+            return tree.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //Returns the number of bytes currently in the log
+    public long logSize() {
+        lock.lock();
+        try {
+            return logSize;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //Writes a fresh snapshot of the whole index and empties the log of everything it covers.
+    //Only copying the tree blocks writers; the snapshot is written with the lock released.
+    public void checkpoint() throws IOException {
+        AVLTree<Game> copy;
+        long covered;
+        lock.lock();
+        try {
+            //the copy must hold exactly what is on disk, with no other checkpoint running
+            while (true) {
+                checkOpen();
+                if (checkpointing || flushing) flushed.awaitUninterruptibly();
+                else if (durableSeq < appendedSeq) awaitDurable(appendedSeq);
+                else break;
+            }
+            copy = tree.copy();
+            covered = logSize;
+            checkpointing = true;
+        } finally {
+            lock.unlock();
+        }
+
+        IOException error = null;
+        try {
+            GameSnapshot.save(copy, snapshotFile);
+        } catch (IOException e) {
+            error = e;
+        }
+
+        lock.lock();
+        try {
+            //after a failed flush the old log is left as it is; it plus the new snapshot still recover correctly
+            if (error == null && failure == null) {
+                while (flushing) flushed.awaitUninterruptibly();
+                replaceLog(covered);
+            }
+        } finally {
+            checkpointing = false;
+            flushed.signalAll();
+            lock.unlock();
+        }
+        if (error != null) throw error;
+    }
+
+    //Makes every acknowledged change durable and closes the log
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) return;
+            try {
+                if (failure == null) awaitDurable(appendedSeq);
+                while (flushing || checkpointing) flushed.awaitUninterruptibly();
+            } finally {
+                closed = true;
+                log.close();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //Applies one change to the tree, logs it and waits until it is durable
+    private boolean apply(byte op, Game g) throws IOException {
+        boolean compact;
+        lock.lock();
+        try {
+            checkOpen();
+            //a remove logs and remembers the Game that was stored, which may differ from g outside the sort key
+            Game changed = g;
+            if (op == INSERT) {
+                if (!tree.insert(g)) return false;
+            } else {
+                changed = tree.get(g);
+                if (changed == null) return false;
+                tree.remove(changed);
+            }
+            append(op, changed);
+            undo.addLast(changed);
+            undoOps.addLast(op);
+            awaitDurable(appendedSeq);
+            compact = logSize >= compactionThreshold && !checkpointing;
+        } finally {
+            lock.unlock();
+        }
+        //outside the lock, which checkpoint releases while it saves
+        if (compact) checkpoint();
+        return true;
+    }
+
+    //Encodes a record into the pending batch; the lock must be held
+    private void append(byte op, Game g) {
+        byte[] name = g.getName().getBytes(StandardCharsets.UTF_8);
+        byte[] date = g.getRelease_date().getBytes(StandardCharsets.UTF_8);
+        int payload = 1 + 7 * Integer.BYTES + Double.BYTES + Integer.BYTES + name.length + Integer.BYTES + date.length;
+        int recordSize = Integer.BYTES + payload + Integer.BYTES;
+        if (pending.remaining() < recordSize) {
+            ByteBuffer bigger = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + recordSize));
+            pending.flip();
+            bigger.put(pending);
+            pending = bigger;
+        }
+        pending.putInt(payload);
+        int start = pending.position();
+        pending.put(op)
+                .putInt(g.getSteam_appid()).putInt(g.getN_achievements()).putInt(g.getTotal_reviews())
+                .putInt(g.getTotal_positive()).putInt(g.getTotal_negative()).putInt(g.getReview_score())
+                .putInt(g.getMetacritic()).putDouble(g.getPrice_initial())
+                .putInt(name.length).put(name).putInt(date.length).put(date);
+        CRC32 crc = new CRC32();
+        crc.update(pending.array(), start, payload);
+        pending.putInt((int) crc.getValue());
+        appendedSeq++;
+    }
+
+    //Waits until record seq is on disk, writing the pending batch itself if no other writer is; the lock must be held
+    private void awaitDurable(long seq) throws IOException {
+        while (durableSeq < seq) {
+            if (failure != null) throw new IOException("Write-ahead log is unusable after an earlier write failed", failure);
+            if (flushing) {
+                flushed.awaitUninterruptibly();
+                continue;
+            }
+            //become the leader for this batch: take everything appended so far and write it without the lock
+            flushing = true;
+            ByteBuffer batch = pending;
+            pending = spare;
+            spare = null;
+            long batchSeq = appendedSeq;
+            int batchBytes = batch.position();
+            IOException error = null;
+            lock.unlock();
+            try {
+                batch.flip();
+                while (batch.hasRemaining()) log.write(batch);
+                log.force(false);
+            } catch (IOException e) {
+                error = e;
+            } finally {
+                lock.lock();
+            }
+            batch.clear();
+            spare = batch;
+            flushing = false;
+            if (error != null) {
+                failure = error;
+                //cut off whatever part of the batch reached the file, so it isn't replayed on the next open
+                try {
+                    log.truncate(logSize);
+                    log.force(false);
+                } catch (IOException e) {
+                    failure.addSuppressed(e);
+                }
+                rollBack();
+            }
+            else {
+                for (long s = durableSeq; s < batchSeq; s++) {
+                    undo.removeFirst();
+                    undoOps.removeFirst();
+                }
+                durableSeq = batchSeq;
+                logSize += batchBytes;
+            }
+            flushed.signalAll();
+        }
+    }
+
+    //Undoes every change that is not on disk, newest first; the lock must be held
+    private void rollBack() {
+        while (!undo.isEmpty()) {
+            Game g = undo.removeLast();
+            if (undoOps.removeLast() == INSERT) tree.remove(g);
+            else tree.insert(g);
+        }
+    }
+
+    //Replaces the log with one holding only the records after the first covered bytes, which a new snapshot
+    //already contains; no batch may be in flight and the lock must be held. The new log is written to a
+    //temporary file and renamed over the old one, so a crash leaves one log or the other, never a mix.
+    private void replaceLog(long covered) throws IOException {
+        int tailSize = (int) (logSize - covered);
+        ByteBuffer tail = ByteBuffer.allocate(tailSize);
+        while (tail.hasRemaining()) {
+            if (log.read(tail, covered + tail.position()) < 0) throw new IOException("Write-ahead log shrank during a checkpoint");
+        }
+        tail.flip();
+        Path temp = logFile.resolveSibling(logFile.getFileName() + ".tmp");
+        FileChannel fresh = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            while (tail.hasRemaining()) fresh.write(tail);
+            fresh.force(true);
+            Files.move(temp, logFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            fresh.close();
+            throw e;
+        }
+        FileChannel old = log;
+        log = fresh;
+        logSize = tailSize;
+        old.close();
+    }
+
+    private void checkOpen() throws IOException {
+        if (closed) throw new IOException("Write-ahead log is closed");
+        if (failure != null) throw new IOException("Write-ahead log is unusable after an earlier write failed", failure);
+    }
+
+    //Applies every complete, intact record of the log to tree and returns the length of that valid prefix
+    private static long replay(FileChannel log, AVLTree<Game> tree) throws IOException {
+        long size = log.size();
+        ByteBuffer in = ByteBuffer.allocate(INITIAL_BATCH_SIZE);
+        long position = 0;
+        CRC32 crc = new CRC32();
+        while (true) {
+            if (!readFully(log, in, position, Integer.BYTES)) return position;
+            int payload = in.getInt(0);
+            if (payload <= 0 || position + Integer.BYTES + payload + Integer.BYTES > size) return position;
+            if (in.capacity() < payload + Integer.BYTES) in = ByteBuffer.allocate(payload + Integer.BYTES);
+            if (!readFully(log, in, position + Integer.BYTES, payload + Integer.BYTES)) return position;
+            crc.reset();
+            crc.update(in.array(), 0, payload);
+            if ((int) crc.getValue() != in.getInt(payload)) return position;
+
+            byte op = in.get(0);
+            in.position(1);
+            int appid = in.getInt(), achievements = in.getInt(), reviews = in.getInt(), positive = in.getInt();
+            int negative = in.getInt(), score = in.getInt(), metacritic = in.getInt();
+            double price = in.getDouble();
+            String name = readString(in);
+            String date = readString(in);
+            Game g = new Game(appid, name, achievements, date, reviews, positive, negative, score, metacritic, price);
+            if (op == INSERT) tree.insert(g);
+            else if (op == REMOVE) tree.remove(g);
+            else return position;
+            position += Integer.BYTES + payload + Integer.BYTES;
+        }
+    }
+
+    //Reads exactly length bytes at position into the start of in, returning false at end of file
+    private static boolean readFully(FileChannel channel, ByteBuffer in, long position, int length) throws IOException {
+        in.clear().limit(length);
+        while (in.hasRemaining()) {
+            if (channel.read(in, position + in.position()) < 0) return false;
+        }
+        return true;
+    }
+
+    //Reads an int byte count and that many UTF-8 bytes from in
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        String s = new String(in.array(), in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return s;
+    }
+}
@@ -0,0 +1,199 @@
+/************************************************************************
+ * @file: GameIngest.java
+ * @description: Loads the steam_games dataset on several cores: the file is split into chunks that are
+ *               parsed on a ForkJoinPool, the Games are parallel-sorted once, and every tree is built
+ *               from that one shared parsed array.
+ * @author: Will S
+ * @date: October 18, 2026
+ ************************************************************************/
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+public class GameIngest {
+    private static final int MIN_CHUNK_SIZE = 1 << 20;  //1 MB, smaller chunks cost more in task overhead than they gain
+    private static final int MAX_CHUNK_SIZE = 32 << 20; //32 MB, bounds the memory each worker holds at once
+    private static final int CHUNKS_PER_THREAD = 4;     //extra chunks let fast workers pick up the slack from slow ones
+    private static final int SCAN_SIZE = 8192;          //bytes read at a time while looking for a chunk's first line break
+
+    private final Game[] games; //every parsed Game, in file order
+    private Game[] sorted;      //games sorted by compareTo with duplicates removed, made on first use
+
+    private GameIngest(Game[] games) {
+        this.games = games;
+    }
+
+    //Loads every row of the file on the common ForkJoinPool, passing malformed rows to onError (may be null)
+    public static GameIngest load(Path file, GameCsvParser.ErrorHandler onError) throws IOException {
+        return load(file, -1, ForkJoinPool.commonPool(), onError);
+    }
+
+    //Loads up to maxRows rows of the file (a negative maxRows means all of them), passing malformed rows to onError
+    //in line order (onError doesn't need to be thread-safe). A limited load only needs the start of the file, so it
+    //is read sequentially; a full load is split into chunks parsed on pool.
+    public static GameIngest load(Path file, int maxRows, ForkJoinPool pool, GameCsvParser.ErrorHandler onError) throws IOException {
+        if (maxRows >= 0) {
+            ArrayList<Game> list = new ArrayList<>();
+            new GameCsvParser().parse(file, maxRows, list::add, onError);
+            return new GameIngest(list.toArray(new Game[0]));
+        }
+        return new GameIngest(parseParallel(file, pool, onError));
+    }
+
+    //Returns the parsed Games in file order, as a read-only list backed by the shared array
+    public List<Game> games() {
+        return Collections.unmodifiableList(Arrays.asList(games));
+    }
+
+    //Returns the number of Games parsed
+    public int size() {
+        return games.length;
+    }
+
+    //Returns the Games sorted by compareTo, keeping only the first (in file order) of Games that compare equal,
+    //as a read-only list. The sort runs in parallel once and is shared by every tree built afterwards.
+    public synchronized List<Game> sorted() {
+        if (sorted == null) {
+            Game[] copy = games.clone();
+            Arrays.parallelSort(copy); //stable, so the first of several equal Games stays first
+            int distinct = 0;
+            for (Game g : copy) {
+                if (distinct == 0 || copy[distinct - 1].compareTo(g) != 0) copy[distinct++] = g;
+            }
+            sorted = Arrays.copyOf(copy, distinct);
+        }
+        return Collections.unmodifiableList(Arrays.asList(sorted));
+    }
+
+    //Builds a balanced AVLTree of every distinct Game in linear time
+    public AVLTree<Game> toAVLTree() {
+        return AVLTree.fromSorted(sorted());
+    }
+
+    //Builds a balanced BST of every distinct Game in linear time
+    public BST<Game> toBST() {
+        return BST.fromSorted(sorted());
+    }
+
+    //*********************
+    //PARALLEL PARSING
+    //*********************
+
+    //A malformed row found by a worker, held until its line number is known
+    private static class Malformed {
+        final int chunkLine; //0-based line number within the chunk
+        final String line;
+        final String reason;
+
+        Malformed(int chunkLine, String line, String reason) {
+            this.chunkLine = chunkLine;
+            this.line = line;
+            this.reason = reason;
+        }
+    }
+
+    //What a worker produced for one chunk
+    private static class ChunkResult {
+        final ArrayList<Game> games = new ArrayList<>();
+        final ArrayList<Malformed> errors = new ArrayList<>();
+        int lines;
+    }
+
+    //Splits the file into line-aligned chunks after the header, parses them on pool and joins the results in file order
+    private static Game[] parseParallel(Path file, ForkJoinPool pool, GameCsvParser.ErrorHandler onError) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long chunkSize = Math.max(MIN_CHUNK_SIZE,
+                    Math.min(MAX_CHUNK_SIZE, size / ((long) pool.getParallelism() * CHUNKS_PER_THREAD)));
+            long[] bounds = chunkBounds(channel, size, chunkSize);
+
+            List<Callable<ChunkResult>> tasks = new ArrayList<>();
+            for (int i = 0; i + 1 < bounds.length; i++) {
+                long start = bounds[i];
+                long end = bounds[i + 1];
+                tasks.add(() -> parseChunk(channel, start, end));
+            }
+            List<ChunkResult> results = new ArrayList<>();
+            try {
+                for (Future<ChunkResult> f : pool.invokeAll(tasks)) results.add(f.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while loading " + file, e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+                throw new IOException("Failed to load " + file, e.getCause());
+            }
+
+            int total = 0;
+            for (ChunkResult r : results) total += r.games.size();
+            Game[] all = new Game[total];
+            int next = 0;
+            long firstLine = 2; //line 1 is the header
+            for (ChunkResult r : results) {
+                for (Game g : r.games) all[next++] = g;
+                if (onError != null) {
+                    for (Malformed m : r.errors) onError.malformed(firstLine + m.chunkLine, m.line, m.reason);
+                }
+                firstLine += r.lines;
+            }
+            return all;
+        }
+    }
+
+    //Returns the chunk boundaries: the first is just past the header line, the last is the end of the file, and
+    //each one in between is the start of the first line at or after a multiple of chunkSize
+    private static long[] chunkBounds(FileChannel channel, long size, long chunkSize) throws IOException {
+        ArrayList<Long> bounds = new ArrayList<>();
+        long start = nextLineStart(channel, 0, size);
+        bounds.add(start);
+        for (long target = start + chunkSize; target < size; target += chunkSize) {
+            long bound = nextLineStart(channel, target, size);
+            if (bound > bounds.get(bounds.size() - 1) && bound < size) bounds.add(bound);
+        }
+        bounds.add(size);
+        long[] result = new long[bounds.size()];
+        for (int i = 0; i < result.length; i++) result[i] = bounds.get(i);
+        return result;
+    }
+
+    //Returns the position just past the first '\n' at or after from, or size if there is none
+    private static long nextLineStart(FileChannel channel, long from, long size) throws IOException {
+        ByteBuffer scan = ByteBuffer.allocate(SCAN_SIZE);
+        long pos = from;
+        while (pos < size) {
+            scan.clear();
+            int read = channel.read(scan, pos);
+            if (read <= 0) break;
+            byte[] bytes = scan.array();
+            for (int i = 0; i < read; i++) {
+                if (bytes[i] == '\n') return pos + i + 1;
+            }
+            pos += read;
+        }
+        return size;
+    }
+
+    //Reads bytes [start, end) of the channel with positional reads (safe to run on many threads at once) and parses them
+    private static ChunkResult parseChunk(FileChannel channel, long start, long end) throws IOException {
+        byte[] bytes = new byte[(int) (end - start)];
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, start + buffer.position()) < 0) break;
+        }
+        ChunkResult result = new ChunkResult();
+        result.lines = new GameCsvParser(64).parseLines(bytes, 0, buffer.position(), 0, result.games::add,
+                (chunkLine, line, reason) -> result.errors.add(new Malformed((int) chunkLine, line, reason)));
+        return result;
+    }
+}
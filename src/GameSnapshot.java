@@ -0,0 +1,188 @@
+/************************************************************************
+ * @file: GameSnapshot.java
+ * @description: Saves an AVLTree of Games to a compact binary file and loads it back by memory-mapping
+ *               the file and bulk-building the tree, so a restart doesn't have to re-parse the CSV.
+ * @author: Will S
+ * @date: October 18, 2026
+ ************************************************************************/
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Snapshot file layout (all numbers big-endian, Games in sorted order):
+ *
+ *   header   int magic "GSNP", int version, int count, int unused, long string heap size
+ *   columns  int[count] for each of steam_appid, n_achievements, total_reviews,
+ *            total_positive, total_negative, review_score, metacritic,
+ *            then double[count] for price_initial
+ *   strings  int[2 * count + 1] offsets into the heap; string 2i is Game i's name
+ *            and string 2i + 1 its release_date
+ *   heap     the UTF-8 bytes of every string, back to back
+ *
+ * Every section has a fixed width worked out from the header, so each one is mapped
+ * and read on its own. Saving writes to a temporary file and then renames it over the
+ * old snapshot, so a crash mid-save never leaves a half-written snapshot behind.
+ */
+public class GameSnapshot {
+    private static final int MAGIC = 0x47534E50; //"GSNP"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 24;
+    private static final int INT_COLUMNS = 7;
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+
+    //static methods only
+    private GameSnapshot() {
+    }
+
+    //Writes every Game of the tree to file, replacing any existing snapshot there
+    public static void save(AVLTree<Game> tree, Path file) throws IOException {
+        int count = tree.size();
+        Game[] games = new Game[count];
+        int i = 0;
+        for (Game g : tree) games[i++] = g;
+
+        //encode the strings first, since the heap size goes in the header
+        byte[][] strings = new byte[2 * count][];
+        long heapSize = 0;
+        for (i = 0; i < count; i++) {
+            strings[2 * i] = games[i].getName().getBytes(StandardCharsets.UTF_8);
+            strings[2 * i + 1] = games[i].getRelease_date().getBytes(StandardCharsets.UTF_8);
+            heapSize += strings[2 * i].length + strings[2 * i + 1].length;
+        }
+        if (heapSize > Integer.MAX_VALUE) throw new IOException("Snapshot string heap is over 2 GB");
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer out = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+            out.putInt(MAGIC).putInt(VERSION).putInt(count).putInt(0).putLong(heapSize);
+            for (int column = 0; column < INT_COLUMNS; column++) {
+                for (Game g : games) {
+                    room(channel, out, Integer.BYTES);
+                    out.putInt(intColumn(g, column));
+                }
+            }
+            for (Game g : games) {
+                room(channel, out, Double.BYTES);
+                out.putDouble(g.getPrice_initial());
+            }
+            int offset = 0;
+            for (byte[] s : strings) {
+                room(channel, out, Integer.BYTES);
+                out.putInt(offset);
+                offset += s.length;
+            }
+            room(channel, out, Integer.BYTES);
+            out.putInt(offset);
+            for (byte[] s : strings) {
+                int written = 0;
+                while (written < s.length) {
+                    room(channel, out, 1);
+                    int n = Math.min(out.remaining(), s.length - written);
+                    out.put(s, written, n);
+                    written += n;
+                }
+            }
+            flush(channel, out);
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    //Loads a snapshot written by save() into a new, perfectly balanced AVLTree in linear time
+    public static AVLTree<Game> load(Path file) throws IOException {
+        Game[] games = readGames(file);
+        try {
+            return AVLTree.fromSorted(Arrays.asList(games));
+        } catch (IllegalArgumentException e) {
+            //save() writes Games in tree order, so records out of order mean the file was damaged
+            throw new IOException(file + " is a corrupt snapshot: " + e.getMessage(), e);
+        }
+    }
+
+    //Reads every Game of a snapshot, in sorted order
+    public static Game[] readGames(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_SIZE) throw new IOException(file + " is too short to be a snapshot");
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            if (header.getInt(0) != MAGIC) throw new IOException(file + " is not a game snapshot");
+            if (header.getInt(4) != VERSION) throw new IOException(file + " has unsupported snapshot version " + header.getInt(4));
+            int count = header.getInt(8);
+            long heapSize = header.getLong(16);
+            long intColumnsStart = HEADER_SIZE;
+            long priceStart = intColumnsStart + (long) INT_COLUMNS * count * Integer.BYTES;
+            long offsetsStart = priceStart + (long) count * Double.BYTES;
+            long heapStart = offsetsStart + (2L * count + 1) * Integer.BYTES;
+            if (count < 0 || heapSize < 0 || heapStart + heapSize != fileSize) {
+                throw new IOException(file + " is truncated or corrupt");
+            }
+
+            int[][] ints = new int[INT_COLUMNS][];
+            for (int column = 0; column < INT_COLUMNS; column++) {
+                ints[column] = new int[count];
+                map(channel, intColumnsStart + (long) column * count * Integer.BYTES, (long) count * Integer.BYTES)
+                        .asIntBuffer().get(ints[column]);
+            }
+            double[] prices = new double[count];
+            map(channel, priceStart, (long) count * Double.BYTES).asDoubleBuffer().get(prices);
+            int[] offsets = new int[2 * count + 1];
+            map(channel, offsetsStart, (long) offsets.length * Integer.BYTES).asIntBuffer().get(offsets);
+            MappedByteBuffer heap = map(channel, heapStart, heapSize);
+
+            Game[] games = new Game[count];
+            byte[] scratch = new byte[64];
+            for (int i = 0; i < count; i++) {
+                int nameStart = offsets[2 * i], dateStart = offsets[2 * i + 1], end = offsets[2 * i + 2];
+                if (nameStart > dateStart || dateStart > end || end > heapSize) throw new IOException(file + " is corrupt");
+                if (end - nameStart > scratch.length) scratch = new byte[Math.max(end - nameStart, scratch.length * 2)];
+                heap.get(nameStart, scratch, 0, end - nameStart);
+                String name = new String(scratch, 0, dateStart - nameStart, StandardCharsets.UTF_8);
+                String releaseDate = new String(scratch, dateStart - nameStart, end - dateStart, StandardCharsets.UTF_8);
+                games[i] = new Game(ints[0][i], name, ints[1][i], releaseDate, ints[2][i], ints[3][i], ints[4][i],
+                        ints[5][i], ints[6][i], prices[i]);
+            }
+            return games;
+        }
+    }
+
+    //Returns the value of one of the int columns for g, in file column order
+    private static int intColumn(Game g, int column) {
+        switch (column) {
+            case 0: return g.getSteam_appid();
+            case 1: return g.getN_achievements();
+            case 2: return g.getTotal_reviews();
+            case 3: return g.getTotal_positive();
+            case 4: return g.getTotal_negative();
+            case 5: return g.getReview_score();
+            default: return g.getMetacritic();
+        }
+    }
+
+    //Maps one section of the file read-only
+    private static MappedByteBuffer map(FileChannel channel, long position, long size) throws IOException {
+        if (size > Integer.MAX_VALUE) throw new IOException("Snapshot section is over 2 GB");
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+    }
+
+    //Makes sure out has at least bytes free, writing it to the channel first if it doesn't
+    private static void room(FileChannel channel, ByteBuffer out, int bytes) throws IOException {
+        if (out.remaining() < bytes) flush(channel, out);
+    }
+
+    //Writes everything in out to the channel and clears it
+    private static void flush(FileChannel channel, ByteBuffer out) throws IOException {
+        out.flip();
+        while (out.hasRemaining()) channel.write(out);
+        out.clear();
+    }
+}
@@ -0,0 +1,147 @@
+/************************************************************************
+ * @file: GameTail.java
+ * @description: Follows a steam_games CSV that another process keeps appending to. The byte offset of the
+ *               last complete line is remembered, so each poll parses only the rows added since the last one
+ *               and hands them over as one batch (for example into a live AVLTree).
+ * @author: Will S
+ * @date: October 18, 2026
+ ************************************************************************/
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * A row is only parsed once its line terminator has been written, so a row the exporter
+ * is still in the middle of writing is picked up by a later poll. If the file shrinks
+ * below the remembered offset it is taken to have been truncated or replaced, and is
+ * read again from the start.
+ *
+ * poll() and follow() must be called from one thread at a time; close() may be called
+ * from any thread.
+ */
+public class GameTail implements Closeable {
+    private static final int MAX_BATCH = 1 << 16;              //rows handed to the sink at once
+    private static final long DEFAULT_INTERVAL_MILLIS = 1000;  //fallback poll interval if no watch event arrives
+
+    private final Path file;
+    private final Consumer<List<Game>> sink;
+    private final GameCsvParser.ErrorHandler onError;
+    private final GameCsvParser parser = new GameCsvParser();
+    private long offset;   //bytes of the file already handled; 0 means the header is still to be skipped
+    private long nextLine; //1-based line number of the line starting at offset
+    private volatile boolean closed;
+
+    //Follows file from the start (skipping the header), passing each batch of new Games to sink and malformed
+    //rows to onError (may be null)
+    public GameTail(Path file, Consumer<List<Game>> sink, GameCsvParser.ErrorHandler onError) {
+        this(file, 0, 1, sink, onError);
+    }
+
+    //Resumes following file at a byte offset and line number saved from offset() and nextLine()
+    public GameTail(Path file, long offset, long nextLine, Consumer<List<Game>> sink, GameCsvParser.ErrorHandler onError) {
+        if (offset < 0 || nextLine < 1) throw new IllegalArgumentException("offset " + offset + ", line " + nextLine);
+        this.file = file;
+        this.offset = offset;
+        this.nextLine = nextLine;
+        this.sink = sink;
+        this.onError = onError;
+    }
+
+    //Returns a sink that inserts each batch into tree while holding the tree's monitor, so other threads
+    //can read the tree safely by synchronizing on it too
+    public static Consumer<List<Game>> into(AVLTree<Game> tree) {
+        return batch -> {
+            synchronized (tree) {
+                for (Game g : batch) tree.insert(g);
+            }
+        };
+    }
+
+    //Returns the number of bytes of the file handled so far
+    public long offset() {
+        return offset;
+    }
+
+    //Returns the line number of the next line to be parsed
+    public long nextLine() {
+        return nextLine;
+    }
+
+    //Parses every complete row appended since the last poll and passes them to the sink in batches.
+    //Returns the number of Games passed on.
+    public int poll() throws IOException {
+        int total = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < offset) {
+                offset = 0;
+                nextLine = 1;
+            }
+            while (channel.size() > offset) {
+                ArrayList<Game> batch = new ArrayList<>();
+                channel.position(offset);
+                int parsed = parser.parse(channel, offset == 0, MAX_BATCH, false, nextLine, true, batch::add, onError);
+                offset += parser.consumedBytes();
+                nextLine += parser.consumedLines();
+                if (!batch.isEmpty()) sink.accept(batch);
+                total += parsed;
+                if (parsed < MAX_BATCH) break; //reached the last complete line
+            }
+        }
+        return total;
+    }
+
+    //Polls once a second, or as soon as the file system reports a change in the file's directory
+    public void follow() throws IOException, InterruptedException {
+        follow(DEFAULT_INTERVAL_MILLIS);
+    }
+
+    //Polls until close() is called. A WatchService on the file's directory triggers a poll as soon as the
+    //file changes; intervalMillis bounds the wait on file systems where change events are slow or missing.
+    public void follow(long intervalMillis) throws IOException, InterruptedException {
+        Path directory = file.toAbsolutePath().getParent();
+        try (WatchService watcher = directory.getFileSystem().newWatchService()) {
+            directory.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            while (!closed) {
+                poll();
+                WatchKey key = watcher.poll(intervalMillis, TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    //which file changed doesn't matter, a poll with nothing new only costs a size check
+                    key.pollEvents();
+                    key.reset();
+                }
+            }
+        }
+    }
+
+    //Stops follow() after its current wait
+    @Override
+    public void close() {
+        closed = true;
+    }
+
+    //Usage: java GameTail <input file>
+    //Loads the file into an AVLTree and keeps it up to date as rows are appended, until killed
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length != 1) {
+            System.err.println("Usage: java GameTail <input file>");
+            System.exit(1);
+        }
+        AVLTree<Game> tree = new AVLTree<>();
+        Consumer<List<Game>> insert = into(tree);
+        GameTail tail = new GameTail(Path.of(args[0]), batch -> {
+            insert.accept(batch);
+            System.out.println("Added " + batch.size() + " games, " + tree.size() + " in the tree");
+        }, (lineNumber, line, reason) -> System.out.println("Error with parsing line " + lineNumber + " (" + reason + "): " + line));
+        tail.follow();
+    }
+}
@@ -0,0 +1,63 @@
+/************************************************************************
+ * @file: Monoid.java
+ * @description: A summary of a group of items that can be built up from the summaries of smaller groups,
+ *               such as a sum or a maximum. An AVLTree created with some Monoids keeps one summary of each
+ *               in every node, for its whole subtree, so it can answer range aggregates in O(log n).
+ * @author: Will S
+ * @date: October 18, 2026
+ ************************************************************************/
+
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * combine must be associative with identity() as its identity element; it does not need
+ * to be commutative, since the tree always combines summaries in sorted order. Summaries
+ * are shared between nodes and queries, so they should be immutable.
+ */
+public interface Monoid<T, A> {
+    //Returns the summary of no items
+    A identity();
+
+    //Returns the summary of one item
+    A of(T item);
+
+    //Returns the summary of a group made of the items of a followed by the items of b
+    A combine(A a, A b);
+
+    //Sum of a long-valued property, e.g. Game::getTotal_reviews
+    static <T> Monoid<T, Long> summingLong(ToLongFunction<? super T> property) {
+        return new Monoid<T, Long>() {
+            public Long identity() { return 0L; }
+            public Long of(T item) { return property.applyAsLong(item); }
+            public Long combine(Long a, Long b) { return a + b; }
+        };
+    }
+
+    //Sum of a double-valued property, e.g. Game::getPrice_initial
+    static <T> Monoid<T, Double> summingDouble(ToDoubleFunction<? super T> property) {
+        return new Monoid<T, Double>() {
+            public Double identity() { return 0.0; }
+            public Double of(T item) { return property.applyAsDouble(item); }
+            public Double combine(Double a, Double b) { return a + b; }
+        };
+    }
+
+    //Largest value of a long-valued property, Long.MIN_VALUE for no items
+    static <T> Monoid<T, Long> maxLong(ToLongFunction<? super T> property) {
+        return new Monoid<T, Long>() {
+            public Long identity() { return Long.MIN_VALUE; }
+            public Long of(T item) { return property.applyAsLong(item); }
+            public Long combine(Long a, Long b) { return Math.max(a, b); }
+        };
+    }
+
+    //Smallest value of a long-valued property, Long.MAX_VALUE for no items
+    static <T> Monoid<T, Long> minLong(ToLongFunction<? super T> property) {
+        return new Monoid<T, Long>() {
+            public Long identity() { return Long.MAX_VALUE; }
+            public Long of(T item) { return property.applyAsLong(item); }
+            public Long combine(Long a, Long b) { return Math.min(a, b); }
+        };
+    }
+}
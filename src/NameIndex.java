@@ -0,0 +1,216 @@
+/************************************************************************
+ * @file: NameIndex.java
+ * @description: Read-only, case-insensitive index on Game.name for a search box. Names are lower-cased and
+ *               sorted, so the games starting with a prefix form one contiguous run found by binary search,
+ *               and the most reviewed games in that run come out of a max-tree in O(k log n).
+ * @author: Will S
+ * @date: October 18, 2026
+ ************************************************************************/
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+
+/**
+ * Memory: besides the sorted Game array, the names are front coded in blocks of
+ * BLOCK: the first name of each block is stored whole and every other name only as
+ * the length it shares with the name before it plus the rest, all in one char array.
+ * Sorted catalog names share long prefixes ("the elder scrolls ...") so this is
+ * much smaller than a String per game, and a lookup only ever reads one block. The
+ * names are never rebuilt: a lookup compares the key with the stored suffixes
+ * directly, using the shared lengths to skip names it already knows the answer for,
+ * so queries allocate nothing but their result.
+ * The max-tree adds 2n ints. Every query returns at most the number of games it is
+ * asked for.
+ *
+ * The index is a snapshot: renaming a Game or changing its total_reviews after the
+ * index is built is not seen until it is rebuilt. Names are matched by their first
+ * 65535 characters. Immutable, so safe to share between threads.
+ */
+public final class NameIndex {
+    private static final int BLOCK = 16;
+    private static final int MAX_NAME = Character.MAX_VALUE;
+
+    private final Game[] games;     // sorted by lower-cased name, then app id
+    private final char[] names;     // front-coded names: shared length, suffix length, suffix chars
+    private final int[] blockStart; // offset in names of the first (whole) name of each block
+    private final int[] best;       // max-tree: best[n + i] = i, best[v] = the better of its two children
+    private final int n;
+
+    //Builds the index over the given games
+    public NameIndex(Collection<? extends Game> source) {
+        n = source.size();
+        String[] folded = new String[n];
+        Integer[] order = new Integer[n];
+        games = source.toArray(new Game[0]);
+        for (int i = 0; i < n; i++) {
+            folded[i] = fold(games[i].getName());
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> {
+            int c = folded[a].compareTo(folded[b]);
+            return c != 0 ? c : Integer.compare(games[a].getSteam_appid(), games[b].getSteam_appid());
+        });
+        Game[] unsorted = games.clone();
+        StringBuilder coded = new StringBuilder();
+        blockStart = new int[(n + BLOCK - 1) / BLOCK];
+        String previous = "";
+        for (int i = 0; i < n; i++) {
+            String name = folded[order[i]];
+            games[i] = unsorted[order[i]];
+            int shared = 0;
+            if (i % BLOCK == 0) {
+                blockStart[i / BLOCK] = coded.length();
+            } else {
+                int limit = Math.min(name.length(), previous.length());
+                while (shared < limit && name.charAt(shared) == previous.charAt(shared)) shared++;
+            }
+            coded.append((char) shared).append((char) (name.length() - shared)).append(name, shared, name.length());
+            previous = name;
+        }
+        names = coded.toString().toCharArray();
+
+        best = new int[2 * n];
+        for (int i = 0; i < n; i++) best[n + i] = i;
+        for (int v = n - 1; v > 0; v--) best[v] = better(best[2 * v], best[2 * v + 1]);
+    }
+
+    //Returns the number of indexed games
+    public int size() {
+        return n;
+    }
+
+    //Returns the number of games whose name starts with prefix, ignoring case
+    public int countPrefix(String prefix) {
+        String p = fold(prefix);
+        return prefixEnd(p) - lowerBound(p);
+    }
+
+    //Returns up to limit games whose name starts with prefix, ignoring case, in name order
+    public List<Game> prefix(String prefix, int limit) {
+        String p = fold(prefix);
+        int from = lowerBound(p);
+        int to = Math.min(prefixEnd(p), from + Math.max(0, limit));
+        return from >= to ? Collections.emptyList() : Collections.unmodifiableList(Arrays.asList(games).subList(from, to));
+    }
+
+    //Returns every game named name, ignoring case, in app id order
+    public List<Game> exact(String name) {
+        String key = fold(name);
+        int from = lowerBound(key);
+        int to = bound(key, true, false);
+        return from >= to ? Collections.emptyList() : Collections.unmodifiableList(Arrays.asList(games).subList(from, to));
+    }
+
+    //Returns the k games with the most total_reviews whose name starts with prefix, ignoring case, most reviewed first
+    //Ties go to the name that sorts first. Runs in O(k log n) whatever the number of matches.
+    public List<Game> complete(String prefix, int k) {
+        String p = fold(prefix);
+        int from = lowerBound(p);
+        int to = prefixEnd(p);
+        List<Game> result = new ArrayList<>(Math.max(0, Math.min(k, to - from)));
+        if (from >= to || k <= 0) return result;
+        //each entry is a run [lo, hi) of the matches and the position of its most reviewed game
+        PriorityQueue<int[]> runs = new PriorityQueue<>((a, b) -> a[2] == b[2] ? 0 : better(a[2], b[2]) == a[2] ? -1 : 1);
+        runs.add(new int[]{from, to, bestIn(from, to)});
+        while (result.size() < k && !runs.isEmpty()) {
+            int[] run = runs.poll();
+            int top = run[2];
+            result.add(games[top]);
+            if (run[0] < top) runs.add(new int[]{run[0], top, bestIn(run[0], top)});
+            if (top + 1 < run[1]) runs.add(new int[]{top + 1, run[1], bestIn(top + 1, run[1])});
+        }
+        return result;
+    }
+
+    //Returns the position of the first game whose name is >= key
+    private int lowerBound(String key) {
+        return bound(key, false, false);
+    }
+
+    //Returns the position just past the last game whose name starts with prefix (already folded)
+    private int prefixEnd(String prefix) {
+        return bound(prefix, true, true);
+    }
+
+    //Returns the position of the first game whose name is > key, or == key unless pastEqual, or starts
+    //with key unless pastPrefixed (pastPrefixed needs pastEqual, since key starts with itself)
+    private int bound(String key, boolean pastEqual, boolean pastPrefixed) {
+        //first block whose whole name is not before the answer; the answer is in the block before it, or is its first game
+        int lo = 0;
+        int hi = blockStart.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (before(blockStart[mid], 0, key, pastEqual, pastPrefixed) < 0) lo = mid + 1;
+            else hi = mid;
+        }
+        if (lo == 0) return 0;
+        int block = lo - 1;
+        int end = Math.min(n, lo * BLOCK);
+        //matched is how many chars the previous name shares with key; that name came before the answer
+        int matched = 0;
+        int p = blockStart[block];
+        for (int i = block * BLOCK; i < end; i++) {
+            int shared = names[p];
+            int rest = names[p + 1];
+            if (shared < matched) {
+                //this name is larger than the previous one where that one still matched key, so it is past key
+                return i;
+            }
+            if (shared == matched) {
+                int m = before(p, shared, key, pastEqual, pastPrefixed);
+                if (m >= 0) return i;
+                matched = -m - 1;
+            }
+            //shared > matched: the name agrees with the previous one beyond where that one left key, so it is before too
+            p += 2 + rest;
+        }
+        return end;
+    }
+
+    //Compares the name coded at p, whose first start chars are known to match key, with key.
+    //Returns a value >= 0 if the name is not before the answer of bound, otherwise -1 - (chars it shares with key).
+    private int before(int p, int start, String key, boolean pastEqual, boolean pastPrefixed) {
+        int shared = names[p];
+        int len = shared + names[p + 1];
+        int suffix = p + 2 - shared; //names[suffix + j] is char j of the name, for j >= shared
+        int limit = Math.min(len, key.length());
+        int j = start;
+        while (j < limit && names[suffix + j] == key.charAt(j)) j++;
+        boolean isBefore;
+        if (j < limit) isBefore = names[suffix + j] < key.charAt(j);
+        else if (len < key.length()) isBefore = true;             //a proper prefix of key
+        else if (len == key.length()) isBefore = pastEqual;       //equal to key
+        else isBefore = pastPrefixed;                             //starts with key
+        return isBefore ? -1 - j : 0;
+    }
+
+    //Returns the position of the most reviewed game in [lo, hi), which must not be empty
+    private int bestIn(int lo, int hi) {
+        int result = lo;
+        for (lo += n, hi += n; lo < hi; lo >>= 1, hi >>= 1) {
+            if ((lo & 1) == 1) result = better(result, best[lo++]);
+            if ((hi & 1) == 1) result = better(result, best[--hi]);
+        }
+        return result;
+    }
+
+    //Of two positions, returns the one with more reviews, or the earlier one on a tie
+    private int better(int a, int b) {
+        int ra = games[a].getTotal_reviews();
+        int rb = games[b].getTotal_reviews();
+        if (ra != rb) return ra > rb ? a : b;
+        return Math.min(a, b);
+    }
+
+    //Lower-cases a name the same way Game.compareTo does, and cuts it to MAX_NAME characters
+    private static String fold(String name) {
+        if (name == null) return "";
+        String folded = name.toLowerCase(Locale.ROOT);
+        return folded.length() > MAX_NAME ? folded.substring(0, MAX_NAME) : folded;
+    }
+}
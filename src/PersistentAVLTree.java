@@ -0,0 +1,366 @@
+/************************************************************************
+ * @file: PersistentAVLTree.java
+ * @description: Immutable AVL tree. insert and remove return a new version that shares every unchanged
+ *               subtree with the old one, so each update costs O(log n) new nodes and any version can be
+ *               kept and read for as long as it is needed, with no locks and no copying.
+ * @author: Will S
+ * @date: October 18, 2026
+ ************************************************************************/
+
+// PersistentAVLTree class
+//
+// CONSTRUCTION: empty( ), or in bulk with fromSorted( list )
+//
+// ******************PUBLIC OPERATIONS*********************
+// PersistentAVLTree insert( x ) --> Return a version with x added
+// PersistentAVLTree remove( x ) --> Return a version without x
+// boolean contains( x )  --> Return true if x is present
+// Comparable findMin( )  --> Return smallest item
+// Comparable findMax( )  --> Return largest item
+// boolean isEmpty( )     --> Return true if empty; else false
+// int size( )            --> Return number of items, O(1)
+// int rank( x )          --> Return number of items less than x
+// Iterator iterator( )   --> Iterate in sorted order
+// Reference              --> Atomically updated current version, with O(1) snapshots
+// ******************ERRORS********************************
+// Throws UnderflowException as appropriate
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * Implements a persistent AVL tree.
+ * Note that all "matching" is based on the compareTo method.
+ * Every field of every node is final, so a version can be handed to other threads
+ * without any locking once a reference to it has been safely published.
+ */
+public final class PersistentAVLTree<AnyType extends Comparable<? super AnyType>> implements Iterable<AnyType> {
+    private static final PersistentAVLTree<?> EMPTY = new PersistentAVLTree<>( null );
+    private static final int ALLOWED_IMBALANCE = 1;
+    // Longest root-to-node path an AVL tree of up to Integer.MAX_VALUE nodes can have
+    private static final int MAX_DEPTH = 64;
+
+    // The root of this version, null if empty
+    private final Node<AnyType> root;
+
+    private PersistentAVLTree( Node<AnyType> root ) {
+        this.root = root;
+    }
+
+    /**
+     * Return the empty tree (one shared instance).
+     */
+    @SuppressWarnings( "unchecked" )
+    public static <AnyType extends Comparable<? super AnyType>> PersistentAVLTree<AnyType> empty( ) {
+        return (PersistentAVLTree<AnyType>) EMPTY;
+    }
+
+    /**
+     * Build a perfectly balanced tree from items already in sorted order, in linear time.
+     * @param sorted the items, in strictly increasing compareTo order.
+     * @throws IllegalArgumentException if the items are not strictly increasing.
+     */
+    public static <AnyType extends Comparable<? super AnyType>> PersistentAVLTree<AnyType> fromSorted( List<? extends AnyType> sorted ) {
+        List<AnyType> items = new ArrayList<>( sorted );
+        for( int i = 1; i < items.size( ); i++ )
+            if( items.get( i - 1 ).compareTo( items.get( i ) ) >= 0 )
+                throw new IllegalArgumentException( "Items are not strictly increasing at index " + i );
+        return new PersistentAVLTree<>( build( items, 0, items.size( ) - 1 ) );
+    }
+
+    // Recursive helper for fromSorted, the middle item becomes the root of each subtree
+    private static <AnyType extends Comparable<? super AnyType>> Node<AnyType> build( List<AnyType> items, int lo, int hi ) {
+        if( lo > hi )
+            return null;
+        int mid = ( lo + hi ) >>> 1;
+        return node( build( items, lo, mid - 1 ), items.get( mid ), build( items, mid + 1, hi ) );
+    }
+
+    /**
+     * Return a version of the tree with x inserted; duplicates are ignored.
+     * @param x the item to insert.
+     * @return the new version, or this one if x was already present.
+     */
+    public PersistentAVLTree<AnyType> insert( AnyType x ) {
+        Node<AnyType> newRoot = insert( x, root );
+        return newRoot == root ? this : new PersistentAVLTree<>( newRoot );
+    }
+
+    /**
+     * Return a version of the tree with x removed.
+     * @param x the item to remove.
+     * @return the new version, or this one if x was not present.
+     */
+    public PersistentAVLTree<AnyType> remove( AnyType x ) {
+        Node<AnyType> newRoot = remove( x, root );
+        return newRoot == root ? this : new PersistentAVLTree<>( newRoot );
+    }
+
+    /**
+     * Find an item in the tree.
+     * @param x the item to search for.
+     * @return true if x is found.
+     */
+    public boolean contains( AnyType x ) {
+        Node<AnyType> t = root;
+        while( t != null ) {
+            int compareResult = x.compareTo( t.data );
+            if( compareResult < 0 )
+                t = t.left;
+            else if( compareResult > 0 )
+                t = t.right;
+            else
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Find the smallest item in the tree.
+     * @throws UnderflowException if the tree is empty.
+     */
+    public AnyType findMin( ) {
+        if( isEmpty( ) )
+            throw new UnderflowException( );
+        Node<AnyType> t = root;
+        while( t.left != null )
+            t = t.left;
+        return t.data;
+    }
+
+    /**
+     * Find the largest item in the tree.
+     * @throws UnderflowException if the tree is empty.
+     */
+    public AnyType findMax( ) {
+        if( isEmpty( ) )
+            throw new UnderflowException( );
+        Node<AnyType> t = root;
+        while( t.right != null )
+            t = t.right;
+        return t.data;
+    }
+
+    /**
+     * Test if the tree is logically empty.
+     */
+    public boolean isEmpty( ) {
+        return root == null;
+    }
+
+    // returns the number of items, kept in the root so this is O(1)
+    public int size( ) {
+        return size( root );
+    }
+
+    /**
+     * Return the number of items in the tree that are smaller than x.
+     */
+    public int rank( AnyType x ) {
+        int rank = 0;
+        Node<AnyType> t = root;
+        while( t != null ) {
+            if( x.compareTo( t.data ) <= 0 )
+                t = t.left;
+            else {
+                rank += size( t.left ) + 1;
+                t = t.right;
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Iterate over this version in sorted order. Other versions being made meanwhile don't affect it.
+     */
+    @Override
+    public Iterator<AnyType> iterator( ) {
+        return new Iterator<AnyType>( ) {
+            private final Node<AnyType>[] stack = newNodeArray( MAX_DEPTH );
+            private int top = pushLeft( root, 0 );
+
+            private int pushLeft( Node<AnyType> t, int top ) {
+                for( ; t != null; t = t.left )
+                    stack[ top++ ] = t;
+                return top;
+            }
+
+            @Override
+            public boolean hasNext( ) {
+                return top > 0;
+            }
+
+            @Override
+            public AnyType next( ) {
+                if( top == 0 )
+                    throw new NoSuchElementException( );
+                Node<AnyType> t = stack[ --top ];
+                stack[ top ] = null;
+                top = pushLeft( t.right, top );
+                return t.data;
+            }
+        };
+    }
+
+    /**
+     * Internal method to insert into a subtree, copying only the nodes on the search path.
+     * @return the new root of the subtree, or t itself if x was already present.
+     */
+    private static <AnyType extends Comparable<? super AnyType>> Node<AnyType> insert( AnyType x, Node<AnyType> t ) {
+        if( t == null )
+            return node( null, x, null );
+        int compareResult = x.compareTo( t.data );
+        if( compareResult < 0 ) {
+            Node<AnyType> left = insert( x, t.left );
+            return left == t.left ? t : balance( left, t.data, t.right );
+        }
+        if( compareResult > 0 ) {
+            Node<AnyType> right = insert( x, t.right );
+            return right == t.right ? t : balance( t.left, t.data, right );
+        }
+        return t; // Duplicate; do nothing
+    }
+
+    /**
+     * Internal method to remove from a subtree, copying only the nodes on the search path.
+     * @return the new root of the subtree, or t itself if x was not present.
+     */
+    private static <AnyType extends Comparable<? super AnyType>> Node<AnyType> remove( AnyType x, Node<AnyType> t ) {
+        if( t == null )
+            return null; // Not found; do nothing
+        int compareResult = x.compareTo( t.data );
+        if( compareResult < 0 ) {
+            Node<AnyType> left = remove( x, t.left );
+            return left == t.left ? t : balance( left, t.data, t.right );
+        }
+        if( compareResult > 0 ) {
+            Node<AnyType> right = remove( x, t.right );
+            return right == t.right ? t : balance( t.left, t.data, right );
+        }
+        if( t.left == null )
+            return t.right;
+        if( t.right == null )
+            return t.left;
+        //both children, the lowest item of the right subtree takes t's place
+        Node<AnyType> successor = t.right;
+        while( successor.left != null )
+            successor = successor.left;
+        return balance( t.left, successor.data, removeMin( t.right ) );
+    }
+
+    // Return a copy of subtree t without its smallest item
+    private static <AnyType extends Comparable<? super AnyType>> Node<AnyType> removeMin( Node<AnyType> t ) {
+        if( t.left == null )
+            return t.right;
+        return balance( removeMin( t.left ), t.data, t.right );
+    }
+
+    /**
+     * Make a node of left, data and right, rotating if the two sides differ in height by two.
+     * Assumes left and right are each within one of being balanced against each other.
+     */
+    private static <AnyType extends Comparable<? super AnyType>> Node<AnyType> balance( Node<AnyType> left, AnyType data, Node<AnyType> right ) {
+        if( height( left ) - height( right ) > ALLOWED_IMBALANCE ) {
+            if( height( left.left ) >= height( left.right ) ) // single rotation with left child
+                return node( left.left, left.data, node( left.right, data, right ) );
+            Node<AnyType> lr = left.right; // double rotation with left child
+            return node( node( left.left, left.data, lr.left ), lr.data, node( lr.right, data, right ) );
+        }
+        if( height( right ) - height( left ) > ALLOWED_IMBALANCE ) {
+            if( height( right.right ) >= height( right.left ) ) // single rotation with right child
+                return node( node( left, data, right.left ), right.data, right.right );
+            Node<AnyType> rl = right.left; // double rotation with right child
+            return node( node( left, data, rl.left ), rl.data, node( rl.right, right.data, right.right ) );
+        }
+        return node( left, data, right );
+    }
+
+    // Make a new node, working out its height and size from its children
+    private static <AnyType extends Comparable<? super AnyType>> Node<AnyType> node( Node<AnyType> left, AnyType data, Node<AnyType> right ) {
+        return new Node<>( data, left, right, Math.max( height( left ), height( right ) ) + 1, size( left ) + size( right ) + 1 );
+    }
+
+    /**
+     * Return the height of node t, or -1, if null.
+     */
+    private static int height( Node<?> t ) {
+        return t == null ? -1 : t.height;
+    }
+
+    /**
+     * Return the number of nodes in the subtree rooted at t, or 0, if null.
+     */
+    private static int size( Node<?> t ) {
+        return t == null ? 0 : t.size;
+    }
+
+    // Create an array of nodes (a generic array can't be created directly)
+    @SuppressWarnings( "unchecked" )
+    private static <AnyType> Node<AnyType>[ ] newNodeArray( int length ) {
+        return (Node<AnyType>[ ]) new Node<?>[ length ];
+    }
+
+    // Immutable tree node; once built it is never changed, so it can be shared by any number of versions
+    private static final class Node<AnyType> {
+        final AnyType data;
+        final Node<AnyType> left;
+        final Node<AnyType> right;
+        final int height;
+        final int size;
+
+        Node( AnyType data, Node<AnyType> left, Node<AnyType> right, int height, int size ) {
+            this.data = data;
+            this.left = left;
+            this.right = right;
+            this.height = height;
+            this.size = size;
+        }
+    }
+
+    //*********************************************************************************************************
+    // CURRENT VERSION REFERENCE
+
+    /**
+     * Holds the current version of a tree for many threads. Readers call snapshot( ),
+     * which is a single volatile read, and then use that version for as long as they
+     * like. Writers build the next version off to the side and swap it in with a
+     * compare-and-set, retrying if another writer got there first. No one ever takes a lock.
+     */
+    public static final class Reference<AnyType extends Comparable<? super AnyType>> {
+        private final AtomicReference<PersistentAVLTree<AnyType>> current;
+
+        // Start from the empty tree
+        public Reference( ) {
+            this( PersistentAVLTree.<AnyType>empty( ) );
+        }
+
+        // Start from a given version
+        public Reference( PersistentAVLTree<AnyType> initial ) {
+            current = new AtomicReference<>( initial );
+        }
+
+        // Return the current version in O(1); it never changes, whatever writers do afterwards
+        public PersistentAVLTree<AnyType> snapshot( ) {
+            return current.get( );
+        }
+
+        // Insert x into the current version and return the version that results
+        public PersistentAVLTree<AnyType> insert( AnyType x ) {
+            return update( t -> t.insert( x ) );
+        }
+
+        // Remove x from the current version and return the version that results
+        public PersistentAVLTree<AnyType> remove( AnyType x ) {
+            return update( t -> t.remove( x ) );
+        }
+
+        // Apply change to the current version atomically; change may run more than once, so it must not have side effects
+        public PersistentAVLTree<AnyType> update( UnaryOperator<PersistentAVLTree<AnyType>> change ) {
+            return current.updateAndGet( change );
+        }
+    }
+}
@@ -0,0 +1,434 @@
+/************************************************************************
+ * @file: PooledAVLTree.java
+ * @description: AVL Balanced Binary Search Tree stored in parallel arrays instead of node objects,
+ *               useable for any "Comparable" object. Same operations as AVLTree.
+ * @author: Will S
+ * @date: October 18, 2026
+ ************************************************************************/
+
+// PooledAVLTree class
+//
+// CONSTRUCTION: with no initializer, or with an initial capacity
+//
+// ******************PUBLIC OPERATIONS*********************
+// void insert( x )       --> Insert x
+// boolean remove( x )    --> Return true if x was present
+// boolean contains( x )  --> Return true if x is present
+// Comparable findMin( )  --> Return smallest item
+// Comparable findMax( )  --> Return largest item
+// boolean isEmpty( )     --> Return true if empty; else false
+// void makeEmpty( )      --> Remove all items
+// int size( )            --> Return number of items, O(1)
+// void printTree( )      --> Print tree in sorted order
+// Iterator iterator( )   --> Iterate in sorted order, lazily
+// ******************ERRORS********************************
+// Throws UnderflowException as appropriate
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Implements an AVL tree whose nodes live in a pool of parallel arrays.
+ * Node i is data[ i ], left[ i ], right[ i ] and height[ i ]; children are array
+ * indexes rather than references, and NIL marks a missing child. Removed slots go
+ * on a free list (chained through left[ ]) and are handed out again by the next insert.
+ * The arrays double when full, so growth is amortized O(1) per insert.
+ *
+ * Compared to AVLTree this saves the object header and three references of every
+ * AVLNode, and a descent reads neighbouring array entries instead of chasing
+ * separately allocated objects, which also means far fewer objects for the GC to trace.
+ * Note that all "matching" is based on the compareTo method.
+ */
+public class PooledAVLTree<AnyType extends Comparable<? super AnyType>> implements Iterable<AnyType> {
+    private static final int NIL = -1;
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int ALLOWED_IMBALANCE = 1;
+    // Longest root-to-node path an AVL tree of up to Integer.MAX_VALUE nodes can have (1.44 * log2(n) < 46)
+    private static final int MAX_DEPTH = 64;
+
+    private Object[ ] data;     // The data in each node
+    private int[ ] left;        // Left child index, or next free slot for released nodes
+    private int[ ] right;       // Right child index
+    private byte[ ] height;     // Height, always < MAX_DEPTH
+
+    private int root = NIL;     // Index of the tree root
+    private int size;           // Number of items in the tree
+    private int used;           // Slots handed out so far; slots past this have never been used
+    private int free = NIL;     // Head of the free list
+
+    // Indexes on the path from the root to the node being changed, reused by every insert and remove
+    private final int[ ] path = new int[ MAX_DEPTH ];
+
+    // Construct the tree.
+    public PooledAVLTree( ) {
+        this( DEFAULT_CAPACITY );
+    }
+
+    /**
+     * Construct the tree with room for a number of items before the pool has to grow.
+     * @param initialCapacity the number of items to make room for.
+     */
+    public PooledAVLTree( int initialCapacity ) {
+        int capacity = Math.max( 1, initialCapacity );
+        data = new Object[ capacity ];
+        left = new int[ capacity ];
+        right = new int[ capacity ];
+        height = new byte[ capacity ];
+    }
+
+    /**
+     * Insert into the tree; duplicates are ignored.
+     * @param x the item to insert.
+     */
+    public void insert( AnyType x ) {
+        if( root == NIL ) {
+            root = allocate( x );
+            return;
+        }
+        int depth = 0;
+        int t = root;
+        while( true ) {
+            int compareResult = x.compareTo( data( t ) );
+            if( compareResult == 0 )
+                return; // Duplicate; do nothing
+            path[ depth++ ] = t;
+            int next = compareResult < 0 ? left[ t ] : right[ t ];
+            if( next == NIL ) {
+                int n = allocate( x );
+                if( compareResult < 0 )
+                    left[ t ] = n;
+                else
+                    right[ t ] = n;
+                break;
+            }
+            t = next;
+        }
+        rebalancePath( depth );
+    }
+
+    /**
+     * Remove from the tree. Nothing is done if x is not found.
+     * @param x the item to remove.
+     * @return true if x was found and removed.
+     */
+    public boolean remove( AnyType x ) {
+        int depth = 0;
+        int t = root;
+        while( t != NIL ) {
+            int compareResult = x.compareTo( data( t ) );
+            if( compareResult == 0 )
+                break;
+            path[ depth++ ] = t;
+            t = compareResult < 0 ? left[ t ] : right[ t ];
+        }
+        if( t == NIL )
+            return false; // Not found; do nothing
+
+        if( left[ t ] != NIL && right[ t ] != NIL ) {
+            //both children, copy the lowest value in the right subtree into t, then unlink that lowest node instead
+            path[ depth++ ] = t;
+            int successor = right[ t ];
+            while( left[ successor ] != NIL ) {
+                path[ depth++ ] = successor;
+                successor = left[ successor ];
+            }
+            data[ t ] = data[ successor ];
+            t = successor;
+        }
+
+        //t now has at most one child, which takes its place
+        int child = left[ t ] != NIL ? left[ t ] : right[ t ];
+        if( depth == 0 )
+            root = child;
+        else if( left[ path[ depth - 1 ] ] == t )
+            left[ path[ depth - 1 ] ] = child;
+        else
+            right[ path[ depth - 1 ] ] = child;
+        release( t );
+        rebalancePath( depth );
+        return true;
+    }
+
+    /**
+     * Find an item in the tree.
+     * @param x the item to search for.
+     * @return true if x is found.
+     */
+    public boolean contains( AnyType x ) {
+        int t = root;
+        while( t != NIL ) {
+            int compareResult = x.compareTo( data( t ) );
+            if( compareResult < 0 )
+                t = left[ t ];
+            else if( compareResult > 0 )
+                t = right[ t ];
+            else
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Find the smallest item in the tree.
+     * @return smallest item.
+     */
+    public AnyType findMin( ) {
+        if( isEmpty( ) )
+            throw new UnderflowException( );
+        int t = root;
+        while( left[ t ] != NIL )
+            t = left[ t ];
+        return data( t );
+    }
+
+    /**
+     * Find the largest item in the tree.
+     * @return the largest item.
+     */
+    public AnyType findMax( ) {
+        if( isEmpty( ) )
+            throw new UnderflowException( );
+        int t = root;
+        while( right[ t ] != NIL )
+            t = right[ t ];
+        return data( t );
+    }
+
+    /**
+     * Make the tree logically empty. The pool keeps its capacity.
+     */
+    public void makeEmpty( ) {
+        Arrays.fill( data, 0, used, null );
+        root = NIL;
+        free = NIL;
+        used = 0;
+        size = 0;
+    }
+
+    /**
+     * Test if the tree is logically empty.
+     * @return true if empty, false otherwise.
+     */
+    public boolean isEmpty( ) {
+        return root == NIL;
+    }
+
+    //returns the count of all nodes in the tree
+    public int size( ) {
+        return size;
+    }
+
+    /**
+     * Print the tree contents in sorted order.
+     */
+    public void printTree( ) {
+        if( isEmpty( ) )
+            System.out.println( "Empty tree" );
+        else {
+            for( AnyType x : this )
+                System.out.print( x + "\n" );
+            System.out.println( );
+        }
+    }
+
+    public void checkBalance( ) {
+        checkBalance( root );
+    }
+
+    private int checkBalance( int t ) {
+        if( t == NIL )
+            return -1;
+
+        int hl = checkBalance( left[ t ] );
+        int hr = checkBalance( right[ t ] );
+        if( Math.abs( height( left[ t ] ) - height( right[ t ] ) ) > 1 ||
+                height( left[ t ] ) != hl || height( right[ t ] ) != hr )
+            System.out.println( "OOPS!!" );
+
+        return height( t );
+    }
+
+    /**
+     * Return a lazy iterator over the tree in sorted order, using O(log n) memory.
+     * The tree must not be changed while the iterator is in use.
+     */
+    @Override
+    public Iterator<AnyType> iterator( ) {
+        return new Iterator<AnyType>( ) {
+            private final int[ ] stack = new int[ MAX_DEPTH ];
+            private int top = pushLeftSpine( stack, 0, root );
+
+            @Override
+            public boolean hasNext( ) {
+                return top > 0;
+            }
+
+            @Override
+            public AnyType next( ) {
+                if( top == 0 )
+                    throw new NoSuchElementException( );
+                int n = stack[ --top ];
+                top = pushLeftSpine( stack, top, right[ n ] );
+                return data( n );
+            }
+        };
+    }
+
+    // Push t and all of its left descendants onto the stack, returning the new top
+    private int pushLeftSpine( int[ ] stack, int top, int t ) {
+        while( t != NIL ) {
+            stack[ top++ ] = t;
+            t = left[ t ];
+        }
+        return top;
+    }
+
+    //*********************
+    // Pool management
+
+    // Take a slot from the free list, or a fresh one if the free list is empty, and fill it with a leaf holding x
+    private int allocate( AnyType x ) {
+        int n;
+        if( free != NIL ) {
+            n = free;
+            free = left[ n ];
+        }
+        else {
+            if( used == data.length )
+                grow( );
+            n = used++;
+        }
+        data[ n ] = x;
+        left[ n ] = NIL;
+        right[ n ] = NIL;
+        height[ n ] = 0;
+        size++;
+        return n;
+    }
+
+    // Put slot n on the free list, dropping its data so it can be collected
+    private void release( int n ) {
+        data[ n ] = null;
+        left[ n ] = free;
+        free = n;
+        size--;
+    }
+
+    // Double the capacity of every pool array
+    private void grow( ) {
+        int capacity = data.length * 2;
+        data = Arrays.copyOf( data, capacity );
+        left = Arrays.copyOf( left, capacity );
+        right = Arrays.copyOf( right, capacity );
+        height = Arrays.copyOf( height, capacity );
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private AnyType data( int t ) {
+        return (AnyType) data[ t ];
+    }
+
+    //*********************
+    // Balancing
+
+    /**
+     * Rebalance the first depth nodes of the path buffer, bottom-up, relinking each
+     * balanced subtree into its parent. Stops early once a subtree's height is unchanged,
+     * since nothing above it can be out of balance then.
+     * @param depth the number of nodes on the path.
+     */
+    private void rebalancePath( int depth ) {
+        for( int i = depth - 1; i >= 0; i-- ) {
+            int t = path[ i ];
+            int oldHeight = height[ t ];
+            int balanced = balance( t );
+            if( i == 0 )
+                root = balanced;
+            else if( left[ path[ i - 1 ] ] == t )
+                left[ path[ i - 1 ] ] = balanced;
+            else
+                right[ path[ i - 1 ] ] = balanced;
+            if( balanced == t && height[ balanced ] == oldHeight )
+                return;
+        }
+    }
+
+    // Assume t is either balanced or within one of being balanced
+    private int balance( int t ) {
+        if( height( left[ t ] ) - height( right[ t ] ) > ALLOWED_IMBALANCE ) {
+            if( height( left[ left[ t ] ] ) >= height( right[ left[ t ] ] ) )
+                t = rotateWithLeftChild( t );
+            else
+                t = doubleWithLeftChild( t );
+        }
+        else if( height( right[ t ] ) - height( left[ t ] ) > ALLOWED_IMBALANCE ) {
+            if( height( right[ right[ t ] ] ) >= height( left[ right[ t ] ] ) )
+                t = rotateWithRightChild( t );
+            else
+                t = doubleWithRightChild( t );
+        }
+        updateHeight( t );
+        return t;
+    }
+
+    /**
+     * Return the height of node t, or -1, if NIL.
+     */
+    private int height( int t ) {
+        return t == NIL ? -1 : height[ t ];
+    }
+
+    // Recompute the height of t from its children
+    private void updateHeight( int t ) {
+        height[ t ] = (byte) ( Math.max( height( left[ t ] ), height( right[ t ] ) ) + 1 );
+    }
+
+    /**
+     * Rotate binary tree node with left child.
+     * For AVL trees, this is a single rotation for case 1.
+     * Update heights, then return new root.
+     */
+    private int rotateWithLeftChild( int k2 ) {
+        int k1 = left[ k2 ];
+        left[ k2 ] = right[ k1 ];
+        right[ k1 ] = k2;
+        updateHeight( k2 );
+        updateHeight( k1 );
+        return k1;
+    }
+
+    /**
+     * Rotate binary tree node with right child.
+     * For AVL trees, this is a single rotation for case 4.
+     * Update heights, then return new root.
+     */
+    private int rotateWithRightChild( int k1 ) {
+        int k2 = right[ k1 ];
+        right[ k1 ] = left[ k2 ];
+        left[ k2 ] = k1;
+        updateHeight( k1 );
+        updateHeight( k2 );
+        return k2;
+    }
+
+    /**
+     * Double rotate binary tree node: first left child
+     * with its right child; then node k3 with new left child.
+     * For AVL trees, this is a double rotation for case 2.
+     */
+    private int doubleWithLeftChild( int k3 ) {
+        left[ k3 ] = rotateWithRightChild( left[ k3 ] );
+        return rotateWithLeftChild( k3 );
+    }
+
+    /**
+     * Double rotate binary tree node: first right child
+     * with its left child; then node k1 with new right child.
+     * For AVL trees, this is a double rotation for case 3.
+     */
+    private int doubleWithRightChild( int k1 ) {
+        right[ k1 ] = rotateWithLeftChild( right[ k1 ] );
+        return rotateWithRightChild( k1 );
+    }
+}
@@ -7,11 +7,17 @@
 
 import java.io.*;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Scanner;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 public class Proj2 {
+    //lines createGameList read but couldn't parse, which the original still counted in its Lines column
+    private static int unparsedLines;
+
     public static void main(String[] args) throws IOException {
         // Use command line arguments to specify the input file
         if (args.length != 2) {
@@ -34,7 +40,7 @@ public class Proj2 {
             FileOutputStream output = new FileOutputStream("output.csv", true);
             writer = new PrintWriter(output);
             //Only used for the 1st time running the file
-            writer.println("Sorted BST Insert,Time,Lines,,Sorted AVL Tree Insert,Time,Lines,,Shuffled BST Insert,Time,Lines,,Shuffled AVL Tree Insert,Time,Lines,,Sorted BST Search,Time,Lines,,Sorted AVL Tree Search,Time,Lines,,Shuffled BST Search,Time,Lines,,Shuffled AVL Tree Search,Time,Lines");
+            writer.println("Sorted BST Insert,Time,Lines,,Sorted AVL Tree Insert,Time,Lines,,Shuffled BST Insert,Time,Lines,,Shuffled AVL Tree Insert,Time,Lines,,Sorted BST Search,Time,Lines,,Sorted AVL Tree Search,Time,Lines,,Shuffled BST Search,Time,Lines,,Shuffled AVL Tree Search,Time,Lines,,Sorted B+Tree Insert,Time,Lines,,Shuffled B+Tree Insert,Time,Lines,,Sorted B+Tree Search,Time,Lines,,Shuffled B+Tree Search,Time,Lines");
         }
 
         //Unused code below (I copied my code from Project 1 over instead)
@@ -54,115 +60,149 @@ public class Proj2 {
         long start;
         long end;
 
-        ArrayList<String> gameList = createGameList(inputFileName, numLines);
-        Collections.sort(gameList);
+        ArrayList<Game> gameList = createGameList(inputFileName, numLines);
+        //"sorted" keeps the order the original version got by sorting its raw CSV lines as text: steam_appid compared
+        //as a string ("10," before "100,"), then name. Sorting by compareTo would turn the sorted BST into a fully
+        //degenerate list and make new rows of output.csv incomparable with the old ones.
+        gameList.sort(Comparator.comparing((Game g) -> g.getSteam_appid() + "," + g.getName()));
+        //the original read numLines + 1 rows and reported numLines, see createGameList
+        int lines = gameList.size() + unparsedLines - 1;
+
+        start = System.nanoTime();
+        BST<Game> sortedBST = listToBST(gameList);
+        end = System.nanoTime();
+        System.out.println("Sorted BST Insert, Time (ns): " + (end-start) + ", Lines: " + lines);
+        writer.print("Sorted BST Insert," + (end-start) + "," + lines + ",,");
 
         start = System.nanoTime();
-        BST<Game> sortedBST = listToBST(gameList.toArray(new String[0]));
+        AVLTree<Game> sortedAVLTree = listToAVLTree(gameList);
         end = System.nanoTime();
-        System.out.println("Sorted BST Insert, Time (ns): " + (end-start) + ", Lines: " + (gameList.size()-1));
-        writer.print("Sorted BST Insert," + (end-start) + "," + (gameList.size()-1) + ",,");
+        System.out.println("Sorted AVL Tree Insert, Time (ns): " + (end-start) + ", Lines: " + lines);
+        writer.print("Sorted AVL Tree Insert," + (end-start) + "," + lines + ",,");
 
         start = System.nanoTime();
-        AVLTree<Game> sortedAVLTree = listToAVLTree(gameList.toArray(new String[0]));
+        BPlusTree<Game> sortedBPlusTree = listToBPlusTree(gameList);
         end = System.nanoTime();
-        System.out.println("Sorted AVL Tree Insert, Time (ns): " + (end-start) + ", Lines: " + (gameList.size()-1));
-        writer.print("Sorted AVL Tree Insert," + (end-start) + "," + (gameList.size()-1) + ",,");
+        String sortedBPlusInsert = "Sorted B+Tree Insert," + (end-start) + "," + lines + ",,";
+        System.out.println("Sorted B+Tree Insert, Time (ns): " + (end-start) + ", Lines: " + lines);
 
         Collections.shuffle(gameList);
 
         start = System.nanoTime();
-        BST<Game> shuffledBST = listToBST(gameList.toArray(new String[0]));
+        BST<Game> shuffledBST = listToBST(gameList);
+        end = System.nanoTime();
+        System.out.println("Shuffled BST Insert, Time (ns): " + (end-start) + ", Lines: " + lines);
+        writer.print("Shuffled BST Insert," + (end-start) + "," + lines + ",,");
+
+        start = System.nanoTime();
+        AVLTree<Game> shuffledAVLTree = listToAVLTree(gameList);
         end = System.nanoTime();
-        System.out.println("Shuffled BST Insert, Time (ns): " + (end-start) + ", Lines: " + (gameList.size()-1));
-        writer.print("Shuffled BST Insert," + (end-start) + "," + (gameList.size()-1) + ",,");
+        System.out.println("Shuffled AVL Tree Insert, Time (ns): " + (end-start) + ", Lines: " + lines);
+        writer.print("Shuffled AVL Tree Insert," + (end-start) + "," + lines + ",,");
 
         start = System.nanoTime();
-        AVLTree<Game> shuffledAVLTree = listToAVLTree(gameList.toArray(new String[0]));
+        BPlusTree<Game> shuffledBPlusTree = listToBPlusTree(gameList);
         end = System.nanoTime();
-        System.out.println("Shuffled AVL Tree Insert, Time (ns): " + (end-start) + ", Lines: " + (gameList.size()-1));
-        writer.print("Shuffled AVL Tree Insert," + (end-start) + "," + (gameList.size()-1) + ",,");
+        String shuffledBPlusInsert = "Shuffled B+Tree Insert," + (end-start) + "," + lines + ",,";
+        System.out.println("Shuffled B+Tree Insert, Time (ns): " + (end-start) + ", Lines: " + lines);
 
         //Choose a random game to search for
         Collections.shuffle(gameList);
-        Game toSearch = null;
-        while (toSearch == null) toSearch = processLine(gameList.getFirst());
+        Game toSearch = gameList.getFirst();
+
+        start = System.nanoTime();
+        boolean found = sortedBST.search(toSearch) != null;
+        end = System.nanoTime();
+        System.out.println("\n" + found);
+        System.out.println("Sorted BST Search, Time (ns): " + (end-start) + ", Lines: " + lines);
+        writer.print("Sorted BST Search," + (end-start) + "," + lines + ",,");
 
         start = System.nanoTime();
-        System.out.println("\n" + (sortedBST.search(toSearch) != null));
+        found = sortedAVLTree.contains(toSearch);
         end = System.nanoTime();
-        System.out.println("Sorted BST Search, Time (ns): " + (end-start) + ", Lines: " + (gameList.size()-1));
-        writer.print("Sorted BST Search," + (end-start) + "," + (gameList.size()-1) + ",,");
+        System.out.println("\n" + found);
+        System.out.println("Sorted AVL Tree Search, Time (ns): " + (end-start) + ", Lines: " + lines);
+        writer.print("Sorted AVL Tree Search," + (end-start) + "," + lines + ",,");
 
         start = System.nanoTime();
-        System.out.println("\n" + sortedAVLTree.contains(toSearch));
+        found = shuffledBST.search(toSearch) != null;
         end = System.nanoTime();
-        System.out.println("Sorted AVL Tree Search, Time (ns): " + (end-start) + ", Lines: " + (gameList.size()-1));
-        writer.print("Sorted AVL Tree Search," + (end-start) + "," + (gameList.size()-1) + ",,");
+        System.out.println("\n" + found);
+        System.out.println("Shuffled BST Search, Time (ns): " + (end-start) + ", Lines: " + lines);
+        writer.print("Shuffled BST Search," + (end-start) + "," + lines + ",,");
 
         start = System.nanoTime();
-        System.out.println("\n" + (shuffledBST.search(toSearch) != null));
+        found = shuffledAVLTree.contains(toSearch);
         end = System.nanoTime();
-        System.out.println("Shuffled BST Search, Time (ns): " + (end-start) + ", Lines: " + (gameList.size()-1));
-        writer.print("Shuffled BST Search," + (end-start) + "," + (gameList.size()-1) + ",,");
+        System.out.println("\n" + found);
+        System.out.println("Shuffled AVL Tree Search, Time (ns): " + (end-start) + ", Lines: " + lines);
+        writer.print("Shuffled AVL Tree Search," + (end-start) + "," + lines + ",,");
+
+        //B+Tree columns go after the original ones so older rows of output.csv still line up
+        writer.print(sortedBPlusInsert);
+        writer.print(shuffledBPlusInsert);
 
         start = System.nanoTime();
-        System.out.println("\n" + shuffledAVLTree.contains(toSearch));
+        found = sortedBPlusTree.contains(toSearch);
         end = System.nanoTime();
-        System.out.println("Shuffled AVL Tree Search, Time (ns): " + (end-start) + ", Lines: " + (gameList.size()-1));
-        writer.print("Shuffled AVL Tree Search," + (end-start) + "," + (gameList.size()-1) + ",,");
+        System.out.println("\n" + found);
+        System.out.println("Sorted B+Tree Search, Time (ns): " + (end-start) + ", Lines: " + lines);
+        writer.print("Sorted B+Tree Search," + (end-start) + "," + lines + ",,");
+
+        start = System.nanoTime();
+        found = shuffledBPlusTree.contains(toSearch);
+        end = System.nanoTime();
+        System.out.println("\n" + found);
+        System.out.println("Shuffled B+Tree Search, Time (ns): " + (end-start) + ", Lines: " + lines);
+        writer.print("Shuffled B+Tree Search," + (end-start) + "," + lines + ",,");
 
         writer.flush();
         writer.close();
+
+        //only collected when run with -Dtree.stats=true
+        if (TreeStats.ENABLED) {
+            System.out.println("\n" + TreeStats.BST.snapshot());
+            System.out.println(TreeStats.AVL.snapshot());
+        }
     }
 
-    //inserts a list of steam games into the AVLTree
-    //Arguments: File name, number of lines to read, sort or shuffle the list
-    private static ArrayList<String> createGameList(String filename, int numLines) throws FileNotFoundException {
-        Scanner csvReader = new Scanner(new File(filename));
-        csvReader.nextLine(); //skip the header line
-        ArrayList<String> lines = new ArrayList<>();
-        while (csvReader.hasNextLine() && numLines >= 0) {
-            String line = csvReader.nextLine();
-            if (!line.isEmpty()) {
-                lines.add(line);
-                numLines--;
-            }
+    //reads the steam games on the first numLines + 1 non-empty lines of the dataset file, as the original Scanner loop
+    //did, so lines that can't be parsed still count (a negative number reads the whole file in parallel)
+    //Arguments: File name, number of lines to read
+    private static ArrayList<Game> createGameList(String filename, int numLines) throws IOException {
+        GameCsvParser.ErrorHandler onError = (lineNumber, line, reason) -> {
+            System.out.println("Error with parsing line " + lineNumber + " (" + reason + "): " + line);
+            unparsedLines++;
+        };
+        if (numLines < 0) {
+            return new ArrayList<>(GameIngest.load(Path.of(filename), -1, ForkJoinPool.commonPool(), onError).games());
         }
-        return lines;
+        ArrayList<Game> games = new ArrayList<>();
+        new GameCsvParser().parseRows(Path.of(filename), numLines + 1, games::add, onError);
+        return games;
     }
 
-    //takes the array of Strings, processes them as games, and inserts into the AVLTree
-    private static BST<Game> listToBST(String[] steam_games) {
+    //inserts the list of games into a BST
+    private static BST<Game> listToBST(List<Game> steam_games) {
         BST<Game> myBST = new BST<>();
-        for (String game : steam_games) {
-            Game toInsert = processLine(game);
-            if (toInsert != null) myBST.insert(toInsert);
-        }
+        for (Game game : steam_games) myBST.insert(game);
         System.out.println("\nBinary Search Tree populated with " + myBST.size() + " nodes.");
         return myBST;
     }
 
-    //takes the array of Strings, processes them as games, and inserts into the AVLTree
-    private static AVLTree<Game> listToAVLTree(String[] steam_games) {
+    //inserts the list of games into a BPlusTree
+    private static BPlusTree<Game> listToBPlusTree(List<Game> steam_games) {
+        BPlusTree<Game> myBPlusTree = new BPlusTree<>();
+        for (Game game : steam_games) myBPlusTree.insert(game);
+        System.out.println("\nB+Tree populated with " + myBPlusTree.size() + " items.");
+        return myBPlusTree;
+    }
+
+    //inserts the list of games into an AVLTree
+    private static AVLTree<Game> listToAVLTree(List<Game> steam_games) {
         AVLTree<Game> myAVLTree = new AVLTree<>();
-        for (String game : steam_games) {
-            Game toInsert = processLine(game);
-            if (toInsert != null) myAVLTree.insert(toInsert);
-        }
+        for (Game game : steam_games) myAVLTree.insert(game);
         System.out.println("\nAVL Tree populated with " + myAVLTree.size() + " nodes.");
         return myAVLTree;
     }
-
-    private static Game processLine(String line) {
-        String[] data = line.split(",");
-        Game processed = null;
-        try {
-            processed = (new Game(Integer.parseInt(data[0]), data[1], Integer.parseInt(data[2]), data[3], Integer.parseInt(data[4]),
-                    Integer.parseInt(data[5]), Integer.parseInt(data[6]), Integer.parseInt(data[7]), Integer.parseInt(data[8]), Double.parseDouble(data[9])));
-        } catch (NumberFormatException e) {
-            System.out.println("Error with parsing line: " + line);
-        }
-        return processed;
-    }
 }
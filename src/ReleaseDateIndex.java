@@ -0,0 +1,152 @@
+/************************************************************************
+ * @file: ReleaseDateIndex.java
+ * @description: Read-only index of Games by release date. Each Game's release_date is parsed once, when the
+ *               Game is built, into an epoch day (Game.getReleaseDay()); the index keeps those ints sorted,
+ *               so date ranges, month and year histograms and "last N days" are binary searches, not scans.
+ * @author: Will S
+ * @date: October 18, 2026
+ ************************************************************************/
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * days[i] is the release day of games[i], in increasing order; games released on
+ * the same day keep the order they were given in. Games whose date could not be
+ * parsed ("Coming soon", "Q2 2025") are left out and only counted.
+ *
+ * count is O(log n), between and releasedInLast are O(log n) plus a view of the
+ * k matches, and the histograms are O(b log n) for b non-empty buckets, since each
+ * bucket's end is found by binary search instead of by walking its games.
+ *
+ * The index is a snapshot: changing a Game's release_date after the index is built
+ * is not seen until it is rebuilt. Immutable, so safe to share between threads.
+ */
+public final class ReleaseDateIndex {
+    private final int[] days;   // release days, sorted
+    private final Game[] games; // games[i] was released on days[i]
+    private final int undated;
+
+    //Builds the index over the given games
+    public ReleaseDateIndex(Collection<? extends Game> source) {
+        Game[] all = source.toArray(new Game[0]);
+        //sort (day, position) pairs packed into longs, which keeps ties in input order without boxing
+        long[] keys = new long[all.length];
+        int dated = 0;
+        for (int i = 0; i < all.length; i++) {
+            int day = all[i].getReleaseDay();
+            if (day != Game.UNDATED) keys[dated++] = ((long) day << 32) | i;
+        }
+        Arrays.sort(keys, 0, dated);
+        days = new int[dated];
+        games = new Game[dated];
+        for (int i = 0; i < dated; i++) {
+            days[i] = (int) (keys[i] >> 32);
+            games[i] = all[(int) keys[i]];
+        }
+        undated = all.length - dated;
+    }
+
+    //Returns the number of dated games in the index
+    public int size() {
+        return days.length;
+    }
+
+    //Returns the number of games left out because their release date could not be parsed
+    public int undatedCount() {
+        return undated;
+    }
+
+    //Returns the number of games released from fromDay to toDay (epoch days), both inclusive
+    public int count(int fromDay, int toDay) {
+        return Math.max(0, firstAfter(toDay) - firstAtOrAfter(fromDay));
+    }
+
+    //Returns the number of games released from from to to, both inclusive
+    public int count(LocalDate from, LocalDate to) {
+        return count(toDay(from), toDay(to));
+    }
+
+    //Returns the games released from fromDay to toDay (epoch days), both inclusive, oldest first
+    public List<Game> between(int fromDay, int toDay) {
+        int lo = firstAtOrAfter(fromDay);
+        int hi = firstAfter(toDay);
+        return lo >= hi ? Collections.emptyList() : Collections.unmodifiableList(Arrays.asList(games).subList(lo, hi));
+    }
+
+    //Returns the games released from from to to, both inclusive, oldest first
+    public List<Game> between(LocalDate from, LocalDate to) {
+        return between(toDay(from), toDay(to));
+    }
+
+    //Returns the games released in the n days up to and including today, oldest first
+    public List<Game> releasedInLast(int n, LocalDate today) {
+        if (n <= 0) return Collections.emptyList();
+        int last = toDay(today);
+        return between((int) Math.max(Integer.MIN_VALUE + 1, (long) last - n + 1), last);
+    }
+
+    //Returns the number of games released in each month from from to to, both inclusive, leaving out empty months
+    public SortedMap<YearMonth, Integer> monthHistogram(LocalDate from, LocalDate to) {
+        SortedMap<YearMonth, Integer> histogram = new TreeMap<>();
+        int end = firstAfter(toDay(to));
+        for (int i = firstAtOrAfter(toDay(from)); i < end; ) {
+            YearMonth month = YearMonth.from(LocalDate.ofEpochDay(days[i]));
+            int next = Math.min(end, firstAtOrAfter(toDay(month.plusMonths(1).atDay(1))));
+            histogram.put(month, next - i);
+            i = next;
+        }
+        return histogram;
+    }
+
+    //Returns the number of games released in each month, leaving out empty months
+    public SortedMap<YearMonth, Integer> monthHistogram() {
+        return days.length == 0 ? new TreeMap<>() : monthHistogram(LocalDate.ofEpochDay(days[0]), LocalDate.ofEpochDay(days[days.length - 1]));
+    }
+
+    //Returns the number of games released in each year from from to to, both inclusive, leaving out empty years
+    public SortedMap<Integer, Integer> yearHistogram(LocalDate from, LocalDate to) {
+        SortedMap<Integer, Integer> histogram = new TreeMap<>();
+        int end = firstAfter(toDay(to));
+        for (int i = firstAtOrAfter(toDay(from)); i < end; ) {
+            int year = LocalDate.ofEpochDay(days[i]).getYear();
+            int next = Math.min(end, firstAtOrAfter(toDay(LocalDate.of(year + 1, 1, 1))));
+            histogram.put(year, next - i);
+            i = next;
+        }
+        return histogram;
+    }
+
+    //Returns the number of games released in each year, leaving out empty years
+    public SortedMap<Integer, Integer> yearHistogram() {
+        return days.length == 0 ? new TreeMap<>() : yearHistogram(LocalDate.ofEpochDay(days[0]), LocalDate.ofEpochDay(days[days.length - 1]));
+    }
+
+    //Returns the position of the first game released on or after day
+    private int firstAtOrAfter(int day) {
+        int lo = 0;
+        int hi = days.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (days[mid] < day) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    //Returns the position of the first game released after day
+    private int firstAfter(int day) {
+        return day == Integer.MAX_VALUE ? days.length : firstAtOrAfter(day + 1);
+    }
+
+    //Converts a date to an epoch day, clamped to the int range used by Game.getReleaseDay()
+    private static int toDay(LocalDate date) {
+        return (int) Math.max(Integer.MIN_VALUE + 1, Math.min(Integer.MAX_VALUE, date.toEpochDay()));
+    }
+}
@@ -1,3 +1,10 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Random;
+import java.util.TreeSet;
+
 public class TestAvl {
     // Test program
     public static void main( String [ ] args ) {
@@ -43,5 +50,308 @@ public class TestAvl {
             if (t.contains(i))
                 System.out.println("Find error2!");
         }
+
+        checkBulkBuild();
+        checkOrderStatistics();
+        checkRanges();
+        checkRemoveIf();
+        checkSetOperations();
+        checkAggregates();
+        checkBloomFilter();
+    }
+
+    // checks fromSorted and fromUnsorted against a TreeSet built from the same values
+    static void checkBulkBuild() {
+        Random random = new Random(4);
+        List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < 5000; i++)
+            values.add(random.nextInt(10000));
+        TreeSet<Integer> expected = new TreeSet<>(values);
+
+        AVLTree<Integer> unsorted = AVLTree.fromUnsorted(values);
+        AVLTree<Integer> sorted = AVLTree.fromSorted(new ArrayList<>(expected));
+        for (AVLTree<Integer> built : List.of(unsorted, sorted)) {
+            built.checkBalance();
+            if (built.size() != expected.size() || !new ArrayList<>(expected).equals(toList(built)))
+                System.out.println("Bulk build error!");
+        }
+
+        try {
+            AVLTree.fromSorted(List.of(1, 3, 2));
+            System.out.println("fromSorted accepted unsorted input!");
+        } catch (IllegalArgumentException expectedException) {
+            // expected
+        }
+        if (!AVLTree.fromSorted(Collections.<Integer>emptyList()).isEmpty())
+            System.out.println("fromSorted of nothing is not empty!");
+    }
+
+    // checks size, rank, select and countBetween against a TreeSet through random inserts and removes
+    static void checkOrderStatistics() {
+        Random random = new Random(6);
+        AVLTree<Integer> t = new AVLTree<>();
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int step = 0; step < 20000; step++) {
+            int x = random.nextInt(2000);
+            if (random.nextInt(3) == 0) {
+                t.remove(x);
+                expected.remove(x);
+            } else {
+                t.insert(x);
+                expected.add(x);
+            }
+            if (t.size() != expected.size())
+                System.out.println("Size error!");
+            if (step % 50 != 0)
+                continue;
+            int probe = random.nextInt(2100) - 50;
+            if (t.rank(probe) != expected.headSet(probe).size())
+                System.out.println("Rank error!");
+            if (!expected.isEmpty()) {
+                int k = random.nextInt(expected.size());
+                if (!t.select(k).equals(new ArrayList<>(expected).get(k)) || t.rank(t.select(k)) != k)
+                    System.out.println("Select error!");
+            }
+            int lo = random.nextInt(2000);
+            int hi = lo + random.nextInt(400) - 100;
+            int between = lo > hi ? 0 : expected.subSet(lo, true, hi, true).size();
+            if (t.countBetween(lo, hi) != between)
+                System.out.println("CountBetween error!");
+        }
+        try {
+            t.select(t.size());
+            System.out.println("Select accepted an index out of bounds!");
+        } catch (IndexOutOfBoundsException expectedException) {
+            // expected
+        }
+    }
+
+    // checks the iterators and range views of AVLTree and BST against the same views of a TreeSet
+    static void checkRanges() {
+        Random random = new Random(7);
+        AVLTree<Integer> avl = new AVLTree<>();
+        BST<Integer> bst = new BST<>();
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int i = 0; i < 3000; i++) {
+            int x = random.nextInt(5000);
+            avl.insert(x);
+            bst.insert(x);
+            expected.add(x);
+        }
+        if (!toList(avl).equals(new ArrayList<>(expected)) || !toList(bst).equals(new ArrayList<>(expected)))
+            System.out.println("Iterator error!");
+        if (!toList(avl.descending()).equals(new ArrayList<>(expected.descendingSet()))
+                || !toList(bst.descending()).equals(new ArrayList<>(expected.descendingSet())))
+            System.out.println("Descending iterator error!");
+
+        for (int i = 0; i < 300; i++) {
+            int lo = random.nextInt(5200) - 100;
+            int hi = lo + random.nextInt(800);
+            boolean loInclusive = random.nextBoolean();
+            boolean hiInclusive = random.nextBoolean();
+            NavigableSet<Integer> view = expected.subSet(lo, loInclusive, hi, hiInclusive);
+            if (!toList(avl.subSet(lo, loInclusive, hi, hiInclusive)).equals(new ArrayList<>(view))
+                    || !toList(bst.subSet(lo, loInclusive, hi, hiInclusive)).equals(new ArrayList<>(view)))
+                System.out.println("SubSet error!");
+            if (!toList(avl.subSet(lo, loInclusive, hi, hiInclusive).descending()).equals(new ArrayList<>(view.descendingSet())))
+                System.out.println("Descending subSet error!");
+            if (!toList(avl.headSet(hi, hiInclusive)).equals(new ArrayList<>(expected.headSet(hi, hiInclusive)))
+                    || !toList(bst.headSet(hi, hiInclusive)).equals(new ArrayList<>(expected.headSet(hi, hiInclusive))))
+                System.out.println("HeadSet error!");
+            if (!toList(avl.tailSet(lo, loInclusive)).equals(new ArrayList<>(expected.tailSet(lo, loInclusive)))
+                    || !toList(bst.tailSet(lo, loInclusive)).equals(new ArrayList<>(expected.tailSet(lo, loInclusive))))
+                System.out.println("TailSet error!");
+        }
+    }
+
+    // checks remove's result, removeAll and both removeIf strategies (one by one and rebuild) against a TreeSet
+    static void checkRemoveIf() {
+        Random random = new Random(8);
+        AVLTree<Integer> t = new AVLTree<>();
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int i = 0; i < 20000; i++) {
+            int x = random.nextInt(40000);
+            t.insert(x);
+            expected.add(x);
+        }
+        for (int i = 0; i < 2000; i++) {
+            int x = random.nextInt(40000);
+            if (t.remove(x) != expected.remove(x))
+                System.out.println("Remove result error!");
+        }
+
+        // a few matches are removed one at a time, most of the tree is rebuilt from the survivors
+        int[] divisors = {97, 2};
+        for (int d : divisors) {
+            boolean changed = t.removeIf(x -> x % d == 0);
+            if (changed != expected.removeIf(x -> x % d == 0))
+                System.out.println("RemoveIf result error!");
+            t.checkBalance();
+            if (t.size() != expected.size() || !toList(t).equals(new ArrayList<>(expected)))
+                System.out.println("RemoveIf error!");
+        }
+        if (t.removeIf(x -> x % 2 == 0))
+            System.out.println("RemoveIf changed the tree without a match!");
+
+        List<Integer> some = new ArrayList<>();
+        for (int i = 0; i < 1000; i++)
+            some.add(random.nextInt(40000));
+        if (t.removeAll(some) != expected.removeAll(some) || !toList(t).equals(new ArrayList<>(expected)))
+            System.out.println("RemoveAll error!");
+        t.checkBalance();
+    }
+
+    // checks union, intersection and difference, with their aggregates and Bloom filter, against TreeSets
+    static void checkSetOperations() {
+        Random random = new Random(12);
+        Monoid<Integer, Long> sum = Monoid.summingLong(x -> x);
+        for (int op = 0; op < 3; op++) {
+            AVLTree<Integer> a = new AVLTree<>(sum);
+            AVLTree<Integer> b = new AVLTree<>(sum);
+            a.useBloomFilter(x -> x, 0.01);
+            b.useBloomFilter(x -> x, 0.01);
+            TreeSet<Integer> expected = new TreeSet<>();
+            TreeSet<Integer> other = new TreeSet<>();
+            for (int i = 0; i < 60000; i++) {
+                int x = random.nextInt(100000);
+                a.insert(x);
+                expected.add(x);
+                int y = random.nextInt(100000);
+                b.insert(y);
+                other.add(y);
+            }
+            AVLTree<Integer> result;
+            if (op == 0) {
+                result = AVLTree.union(a, b);
+                expected.addAll(other);
+            } else if (op == 1) {
+                result = AVLTree.intersection(a, b);
+                expected.retainAll(other);
+            } else {
+                result = AVLTree.difference(a, b);
+                expected.removeAll(other);
+            }
+            result.checkBalance();
+            if (!a.isEmpty() || !b.isEmpty() || a.contains(expected.first()))
+                System.out.println("Set operation left an input non-empty!");
+            if (result.size() != expected.size() || !toList(result).equals(new ArrayList<>(expected)))
+                System.out.println("Set operation error " + op + "!");
+            long total = 0;
+            for (int x : expected)
+                total += x;
+            if (result.aggregate(sum) != total)
+                System.out.println("Set operation aggregate error " + op + "!");
+            for (int i = 0; i < 100000; i++)
+                if (result.contains(i) != expected.contains(i))
+                    System.out.println("Set operation filter error " + op + "!");
+        }
+
+        AVLTree<Integer> t = new AVLTree<>();
+        t.insert(1);
+        try {
+            AVLTree.union(t, t);
+            System.out.println("Union of a tree with itself was not rejected!");
+        } catch (IllegalArgumentException expected) {
+            // passing the same tree twice would share its nodes
+        }
+    }
+
+    // checks whole-tree and range aggregates through inserts, removes, removeIf and fromSorted against sums and maxima of a TreeSet
+    static void checkAggregates() {
+        Random random = new Random(22);
+        Monoid<Integer, Long> sum = Monoid.summingLong(x -> x);
+        Monoid<Integer, Long> max = Monoid.maxLong(x -> x % 1000);
+        AVLTree<Integer> t = new AVLTree<>(sum, max);
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int i = 0; i < 40000; i++) {
+            int x = random.nextInt(20000);
+            if (random.nextInt(3) == 0) {
+                t.remove(x);
+                expected.remove(x);
+            } else {
+                t.insert(x);
+                expected.add(x);
+            }
+        }
+        t.removeIf(x -> x % 7 == 0);
+        expected.removeIf(x -> x % 7 == 0);
+        AVLTree<Integer> built = AVLTree.fromSorted(new ArrayList<>(expected), sum, max);
+        for (AVLTree<Integer> tree : List.of(t, built)) {
+            if (tree.aggregate(sum) != sumOf(expected) || tree.aggregate(max) != maxOf(expected))
+                System.out.println("Aggregate error!");
+            for (int i = 0; i < 1000; i++) {
+                int lo = random.nextInt(20000);
+                int hi = lo + random.nextInt(3000);
+                NavigableSet<Integer> range = expected.subSet(lo, true, hi, true);
+                if (tree.aggregate(sum, lo, hi) != sumOf(range) || tree.aggregate(max, lo, hi) != maxOf(range))
+                    System.out.println("Range aggregate error!");
+            }
+        }
+        try {
+            t.aggregate(Monoid.summingLong(x -> x));
+            System.out.println("Aggregate the tree doesn't keep was not rejected!");
+        } catch (IllegalArgumentException e) {
+            // only the Monoids passed to the constructor are kept
+        }
+    }
+
+    // checks that contains gives the same answers with a Bloom filter in front, through growth, removes, removeIf and makeEmpty
+    static void checkBloomFilter() {
+        Random random = new Random(25);
+        AVLTree<Integer> t = new AVLTree<>();
+        t.useBloomFilter(x -> x, 0.01);
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int round = 0; round < 4; round++) {
+            for (int i = 0; i < 20000; i++) {
+                int x = random.nextInt(100000);
+                if (random.nextInt(4) == 0) {
+                    t.remove(x);
+                    expected.remove(x);
+                } else {
+                    t.insert(x);
+                    expected.add(x);
+                }
+            }
+            if (round == 2) {
+                t.removeIf(x -> x % 3 == 0);
+                expected.removeIf(x -> x % 3 == 0);
+            }
+            for (int x = 0; x < 100000; x++)
+                if (t.contains(x) != expected.contains(x))
+                    System.out.println("Bloom filter contains error!");
+        }
+        BloomFilter<? super Integer> filter = t.bloomFilter();
+        if (filter.falsePositives() + filter.truePositives() + filter.rejected() == 0 || filter.isFull())
+            System.out.println("Bloom filter counter or sizing error!");
+        t.makeEmpty();
+        if (t.contains(expected.first()) || t.bloomFilter().added() != 0)
+            System.out.println("Bloom filter makeEmpty error!");
+        t.dropBloomFilter();
+        if (t.bloomFilter() != null)
+            System.out.println("DropBloomFilter error!");
+    }
+
+    // returns the sum of the items
+    static long sumOf(Iterable<Integer> items) {
+        long total = 0;
+        for (int x : items)
+            total += x;
+        return total;
+    }
+
+    // returns the largest x % 1000 of the items, or Long.MIN_VALUE if there are none
+    static long maxOf(Iterable<Integer> items) {
+        long largest = Long.MIN_VALUE;
+        for (int x : items)
+            largest = Math.max(largest, x % 1000);
+        return largest;
+    }
+
+    // returns the items of a tree in iteration order
+    static <T extends Comparable<? super T>> List<T> toList(Iterable<T> tree) {
+        List<T> items = new ArrayList<>();
+        for (T x : tree)
+            items.add(x);
+        return items;
     }
 }
@@ -0,0 +1,65 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+public class TestBPlusTree {
+    // Test program: random inserts and removes on B+trees of several fanouts, checked against a TreeSet
+    public static void main( String [ ] args ) {
+        System.out.println("Checking... (no more output means success)");
+
+        int[] fanouts = {4, 5, 16, 64};
+        for (int fanout : fanouts) {
+            Random random = new Random(fanout);
+            BPlusTree<Integer> t = new BPlusTree<>(fanout);
+            TreeSet<Integer> expected = new TreeSet<>();
+            for (int i = 0; i < 100000; i++) {
+                int x = random.nextInt(20000);
+                // more inserts than removes early on, then more removes, so the tree both grows and shrinks
+                boolean insert = random.nextInt(100) < (i < 50000 ? 70 : 30);
+                if (insert) {
+                    t.insert(x);
+                    expected.add(x);
+                } else if (t.remove(x) != expected.remove(x)) {
+                    System.out.println("Remove result error!");
+                }
+                if (i % 10000 == 0)
+                    t.checkBalance();
+            }
+            t.checkBalance();
+            if (t.size() != expected.size() || !toList(t).equals(new ArrayList<>(expected)))
+                System.out.println("Contents error for fanout " + fanout + "!");
+            for (int x = -1; x <= 20000; x++)
+                if (t.contains(x) != expected.contains(x))
+                    System.out.println("Contains error!");
+            if (!expected.isEmpty() && (!t.findMin().equals(expected.first()) || !t.findMax().equals(expected.last())))
+                System.out.println("FindMin or FindMax error!");
+            for (int i = 0; i < 100; i++) {
+                int lo = random.nextInt(20000);
+                int hi = lo + random.nextInt(2000);
+                if (!toList(t.range(lo, hi)).equals(new ArrayList<>(expected.subSet(lo, true, hi, true))))
+                    System.out.println("Range error!");
+            }
+            for (int x : new ArrayList<>(expected))
+                t.remove(x);
+            t.checkBalance();
+            if (!t.isEmpty() || t.iterator().hasNext())
+                System.out.println("Remove all error!");
+        }
+
+        try {
+            new BPlusTree<Integer>(3);
+            System.out.println("Small fanout was not rejected!");
+        } catch (IllegalArgumentException e) {
+            // too small
+        }
+    }
+
+    // returns the items of a tree in iteration order
+    static <T> List<T> toList(Iterable<T> tree) {
+        List<T> items = new ArrayList<>();
+        for (T x : tree)
+            items.add(x);
+        return items;
+    }
+}
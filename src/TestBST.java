@@ -0,0 +1,61 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+public class TestBST {
+    // Test program: checks BST lookups with Games, where compareTo only looks at metacritic, price and name,
+    // so a probe can compare equal to a stored Game while its other fields differ
+    public static void main( String [ ] args ) {
+        System.out.println("Checking... (no more output means success)");
+
+        Random random = new Random(2);
+        BST<Game> bst = new BST<>();
+        TreeSet<Game> expected = new TreeSet<>();
+        List<Game> stored = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            Game g = new Game(i, "Game " + random.nextInt(2000), i % 50, "Mar 1 2020", i, i, 0, 5,
+                    random.nextInt(101) - 1, random.nextInt(6000) / 100.0);
+            bst.insert(g);
+            if (expected.add(g))
+                stored.add(g);
+        }
+        if (bst.size() != expected.size())
+            System.out.println("Size error!");
+
+        for (Game g : stored) {
+            // same sort key, different app id and reviews
+            Game probe = new Game(g.getSteam_appid() + 100000, g.getName().toUpperCase(), 0, "", 1, 1, 1, 1,
+                    g.getMetacritic(), g.getPrice_initial());
+            if (bst.search(probe) == null || bst.search(probe).getData() != g || !bst.containsKey(probe))
+                System.out.println("Search error for a compareTo-equal probe!");
+            if (bst.searchExact(probe) != null)
+                System.out.println("SearchExact accepted a probe whose other fields differ!");
+            Game copy = new Game(g.getSteam_appid(), g.getName(), g.getN_achievements(), g.getRelease_date(), g.getTotal_reviews(),
+                    g.getTotal_positive(), g.getTotal_negative(), g.getReview_score(), g.getMetacritic(), g.getPrice_initial());
+            if (bst.searchExact(copy) == null || bst.searchExact(copy).getData() != g)
+                System.out.println("SearchExact missed an equal Game!");
+        }
+        for (int i = 0; i < 1000; i++) {
+            Game absent = new Game(-1, "Absent " + i, 0, "", 0, 0, 0, 0, random.nextInt(101) - 1, random.nextInt(6000) / 100.0);
+            if (bst.containsKey(absent) || bst.search(absent) != null || bst.searchExact(absent) != null)
+                System.out.println("Found an absent Game!");
+        }
+        if (bst.search(null) != null || new BST<Game>().containsKey(stored.get(0)))
+            System.out.println("Null or empty search error!");
+
+        // remove returns the root node from before the removal
+        for (int i = 0; i < stored.size(); i += 3) {
+            Node<Game> before = bst.root;
+            Node<Game> previous = bst.remove(stored.get(i));
+            if (previous == null || previous != before)
+                System.out.println("Remove return error!");
+            expected.remove(stored.get(i));
+        }
+        List<Game> items = new ArrayList<>();
+        for (Game g : bst)
+            items.add(g);
+        if (bst.size() != expected.size() || !items.equals(new ArrayList<>(expected)))
+            System.out.println("Remove error!");
+    }
+}
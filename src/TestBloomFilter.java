@@ -0,0 +1,57 @@
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+public class TestBloomFilter {
+    // Test program: fills filters to capacity and checks that nothing added is ever rejected and that the
+    // false-positive rate seen on items never added stays at the rate the filter was sized for
+    public static void main( String [ ] args ) {
+        System.out.println("Checking... (no more output means success)");
+
+        double[] rates = {0.1, 0.01, 0.001, 0.0001};
+        for (double rate : rates) {
+            Random random = new Random(25);
+            int capacity = 200000;
+            BloomFilter<Long> filter = new BloomFilter<>(x -> x, capacity, rate);
+            Set<Long> added = new HashSet<>();
+            for (int i = 0; i < capacity; i++) {
+                long x = random.nextLong();
+                filter.add(x);
+                added.add(x);
+            }
+            if (filter.isFull() || filter.added() != capacity)
+                System.out.println("Fill error!");
+            for (long x : added)
+                if (!filter.mightContain(x))
+                    System.out.println("False negative!");
+
+            // enough lookups that about 2000 false positives are expected; allow 10% for chance
+            long lookups = (long) (2000 / rate);
+            for (long i = 0; i < lookups; i++) {
+                long x = random.nextLong();
+                boolean passed = filter.mightContain(x);
+                filter.recordLookup(passed, passed && added.contains(x));
+            }
+            double observed = filter.observedFalsePositiveRate();
+            if (observed > rate * 1.1)
+                System.out.println("False-positive rate " + observed + " over target " + rate + "!");
+            if (filter.rejected() + filter.falsePositives() + filter.truePositives() != lookups)
+                System.out.println("Counter error!");
+        }
+
+        BloomFilter<Long> filter = new BloomFilter<>(x -> x, 10, 0.01);
+        for (long x = 0; x < 11; x++)
+            filter.add(x);
+        if (!filter.isFull())
+            System.out.println("IsFull error!");
+        filter.clear();
+        if (filter.added() != 0 || filter.mightContain(3L))
+            System.out.println("Clear error!");
+        try {
+            new BloomFilter<Long>(x -> x, 10, 1.0);
+            System.out.println("Bad rate was not rejected!");
+        } catch (IllegalArgumentException e) {
+            // the rate must be between 0 and 1
+        }
+    }
+}
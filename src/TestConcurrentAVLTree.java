@@ -0,0 +1,83 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class TestConcurrentAVLTree {
+    // Test program: writers insert and remove even numbers while readers use the optimistic reads;
+    // numbers that never change must always be seen correctly, and the final tree must match a TreeSet
+    public static void main( String [ ] args ) throws InterruptedException {
+        System.out.println("Checking... (no more output means success)");
+
+        final int RANGE = 100000;
+        ConcurrentAVLTree<Integer> t = new ConcurrentAVLTree<>();
+        // multiples of 4 stay in the tree, odd numbers never enter it, the other evens come and go
+        for (int i = 0; i < RANGE; i += 4)
+            t.insert(i);
+        t.insert(-1);
+        t.insert(RANGE);
+
+        AtomicBoolean done = new AtomicBoolean();
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < 3; r++) {
+            int seed = r;
+            Thread reader = new Thread(() -> {
+                Random random = new Random(seed);
+                while (!done.get()) {
+                    int x = random.nextInt(RANGE);
+                    if (x % 4 == 0 && !t.contains(x))
+                        System.out.println("Missed a permanent item!");
+                    if (x % 2 == 1 && t.contains(x))
+                        System.out.println("Found an item never inserted!");
+                    if (t.findMin() != -1 || t.findMax() != RANGE)
+                        System.out.println("FindMin or FindMax error!");
+                }
+            });
+            readers.add(reader);
+            reader.start();
+        }
+
+        List<TreeSet<Integer>> changed = new ArrayList<>();
+        List<Thread> writers = new ArrayList<>();
+        for (int w = 0; w < 2; w++) {
+            TreeSet<Integer> mine = new TreeSet<>();
+            changed.add(mine);
+            int first = w;
+            Thread writer = new Thread(() -> {
+                Random random = new Random(100 + first);
+                for (int i = 0; i < 300000; i++) {
+                    // each writer owns half of the changing numbers, so its TreeSet stays exact
+                    int x = 4 * random.nextInt(RANGE / 8) * 2 + 2 + 4 * first;
+                    if (random.nextBoolean()) {
+                        t.insert(x);
+                        mine.add(x);
+                    } else if (t.remove(x) != mine.remove(x)) {
+                        System.out.println("Remove result error!");
+                    }
+                }
+            });
+            writers.add(writer);
+            writer.start();
+        }
+        for (Thread writer : writers)
+            writer.join();
+        done.set(true);
+        for (Thread reader : readers)
+            reader.join();
+
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int i = 0; i < RANGE; i += 4)
+            expected.add(i);
+        expected.add(-1);
+        expected.add(RANGE);
+        for (TreeSet<Integer> mine : changed)
+            expected.addAll(mine);
+        AVLTree<Integer> copy = t.copy();
+        copy.checkBalance();
+        if (t.size() != expected.size() || !new ArrayList<>(expected).equals(t.subSet(-1, RANGE)))
+            System.out.println("Final contents error!");
+        if (t.countBetween(0, RANGE / 2) != expected.subSet(0, true, RANGE / 2, true).size() || t.rank(RANGE) != expected.size() - 1)
+            System.out.println("Count or rank error!");
+    }
+}
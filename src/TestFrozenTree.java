@@ -0,0 +1,74 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+public class TestFrozenTree {
+    // Test program: freezes AVLTrees of many sizes (full, and one short of or past a full level) and
+    // checks every query against a TreeSet
+    public static void main( String [ ] args ) {
+        System.out.println("Checking... (no more output means success)");
+
+        Random random = new Random(20);
+        int[] sizes = {0, 1, 2, 3, 7, 8, 15, 16, 17, 100, 1023, 1024, 1025, 50000};
+        for (int size : sizes) {
+            AVLTree<Integer> tree = new AVLTree<>();
+            TreeSet<Integer> expected = new TreeSet<>();
+            while (expected.size() < size) {
+                int x = 2 * random.nextInt(4 * size + 1); // even, so odd keys probe the gaps
+                tree.insert(x);
+                expected.add(x);
+            }
+            FrozenTree<Integer> frozen = tree.freeze();
+            List<Integer> sorted = new ArrayList<>(expected);
+            if (frozen.size() != size || frozen.isEmpty() != (size == 0) || !toList(frozen).equals(sorted))
+                System.out.println("Contents error for size " + size + "!");
+            for (int x = -1; x <= 8 * size + 1; x++) {
+                if (frozen.contains(x) != expected.contains(x))
+                    System.out.println("Contains error for size " + size + "!");
+                if (!same(frozen.ceiling(x), expected.ceiling(x)) || !same(frozen.floor(x), expected.floor(x)))
+                    System.out.println("Ceiling or floor error for size " + size + " at " + x + "!");
+                int index = Collections.binarySearch(sorted, x);
+                if (frozen.rank(x) != (index >= 0 ? index : -index - 1))
+                    System.out.println("Rank error for size " + size + "!");
+            }
+            int k = 0;
+            for (int x : expected)
+                if (frozen.select(k++) != x)
+                    System.out.println("Select error for size " + size + "!");
+            if (size > 0 && (frozen.findMin() != (int) expected.first() || frozen.findMax() != (int) expected.last()))
+                System.out.println("FindMin or FindMax error!");
+            // freezing copies: later changes to the tree don't show
+            tree.insert(-5);
+            if (frozen.contains(-5))
+                System.out.println("Frozen tree saw a later insert!");
+        }
+
+        try {
+            FrozenTree.fromSorted(List.of(1, 3, 3));
+            System.out.println("Unsorted input was not rejected!");
+        } catch (IllegalArgumentException e) {
+            // not strictly increasing
+        }
+        try {
+            FrozenTree.fromSorted(List.<Integer>of()).findMin();
+            System.out.println("FindMin on an empty tree did not throw!");
+        } catch (UnderflowException e) {
+            // empty
+        }
+    }
+
+    // returns true if both are null or they are equal
+    static boolean same(Integer a, Integer b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    // returns the items of a tree in iteration order
+    static <T> List<T> toList(Iterable<T> tree) {
+        List<T> items = new ArrayList<>();
+        for (T x : tree)
+            items.add(x);
+        return items;
+    }
+}
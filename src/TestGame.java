@@ -0,0 +1,70 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class TestGame {
+    // Test program: checks Game.compareTo, which works on a cached packed key, against the original
+    // field-by-field comparison, on values picked to hit the edges of the packing
+    public static void main( String [ ] args ) {
+        System.out.println("Checking... (no more output means success)");
+
+        Random random = new Random(5);
+        int[] metacritics = {Integer.MIN_VALUE, -100, -1, 0, 1, 50, 99, 100, Integer.MAX_VALUE};
+        double[] prices = {-1e12, -21474836.48, -100.0, -1.0, -0.015, -0.005, -0.0, 0.0, 0.001, 0.004, 0.005, 0.0051,
+                0.009, 0.01, 9.99, 9.994, 9.995, 9.996, 10.0, 21474836.47, 21474836.475, 21474836.48, 21474836.49, 1e12, 1e300};
+        String[] names = {"", "a", "A", "abc", "ABC", "aBc", "abd", "Ab", "zeta", "Zeta", "Éclair", "éclair", "ß", "SS"};
+        List<Game> games = new ArrayList<>();
+        for (int i = 0; i < 1500; i++) {
+            games.add(new Game(i, names[random.nextInt(names.length)], 0, "", 0, 0, 0, 0,
+                    metacritics[random.nextInt(metacritics.length)], prices[random.nextInt(prices.length)]));
+        }
+        checkAllPairs(games, "construction");
+
+        // every setter that feeds the sort key must refresh it
+        for (Game g : games) {
+            switch (random.nextInt(3)) {
+                case 0: g.setMetacritic(metacritics[random.nextInt(metacritics.length)]); break;
+                case 1: g.setPrice_initial(prices[random.nextInt(prices.length)]); break;
+                default: g.setName(names[random.nextInt(names.length)]); break;
+            }
+        }
+        checkAllPairs(games, "setters");
+
+        // sub-cent differences that round to the same cent still order by the exact price
+        Game cheaper = new Game(1, "same", 0, "", 0, 0, 0, 0, 80, 9.994);
+        Game dearer = new Game(2, "same", 0, "", 0, 0, 0, 0, 80, 9.996);
+        Game sameCent = new Game(3, "same", 0, "", 0, 0, 0, 0, 80, 9.9951);
+        if (cheaper.compareTo(dearer) >= 0 || sameCent.compareTo(dearer) >= 0 || dearer.compareTo(sameCent) <= 0)
+            System.out.println("Sub-cent price error!");
+        // names that differ only in case tie, and so do their sort hashes
+        Game lower = new Game(4, "portal", 0, "", 0, 0, 0, 0, 90, 9.99);
+        Game upper = new Game(5, "PORTAL", 0, "", 0, 0, 0, 0, 90, 9.99);
+        if (lower.compareTo(upper) != 0 || lower.sortHash() != upper.sortHash())
+            System.out.println("Case tie error!");
+    }
+
+    // prints an error for every pair of games that compareTo orders differently from the reference
+    static void checkAllPairs(List<Game> games, String when) {
+        int errors = 0;
+        for (Game a : games) {
+            for (Game b : games) {
+                int expected = Integer.signum(reference(a, b));
+                if (Integer.signum(a.compareTo(b)) != expected && errors++ < 5)
+                    System.out.println("Order error after " + when + ": " + a + " vs " + b);
+                if (expected == 0 && a.sortHash() != b.sortHash() && errors++ < 5)
+                    System.out.println("Sort hash error after " + when + ": " + a + " vs " + b);
+            }
+        }
+    }
+
+    // the original Game.compareTo: metacritic, then exact price, then name ignoring case
+    static int reference(Game a, Game b) {
+        if (a.getMetacritic() != b.getMetacritic())
+            return a.getMetacritic() < b.getMetacritic() ? -1 : 1;
+        if (a.getPrice_initial() < b.getPrice_initial())
+            return -1;
+        if (a.getPrice_initial() > b.getPrice_initial())
+            return 1;
+        return a.getName().toLowerCase().compareTo(b.getName().toLowerCase());
+    }
+}
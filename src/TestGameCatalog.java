@@ -0,0 +1,60 @@
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+
+public class TestGameCatalog {
+    // Test program: random inserts and removes through a GameCatalog, checked against a TreeSet for the
+    // tree and a HashMap for the app id index, including Games that share an app id
+    public static void main( String [ ] args ) {
+        System.out.println("Checking... (no more output means success)");
+
+        Random random = new Random(21);
+        GameCatalog catalog = new GameCatalog();
+        catalog.useBloomFilter(0.01);
+        TreeSet<Game> expected = new TreeSet<>();
+        Map<Integer, Game> byAppId = new HashMap<>();
+        Game[] games = new Game[3000];
+        for (int i = 0; i < games.length; i++) {
+            // app ids repeat every 2000 Games, so a third of them clash with another Game
+            games[i] = new Game(i % 2000, "Game " + i, 0, "", random.nextInt(1000), 0, 0, 0, random.nextInt(101) - 1, i / 100.0);
+        }
+        for (int i = 0; i < 50000; i++) {
+            Game g = games[random.nextInt(games.length)];
+            if (random.nextBoolean()) {
+                boolean added = !expected.contains(g) && !byAppId.containsKey(g.getSteam_appid());
+                if (catalog.insert(g) != added)
+                    System.out.println("Insert result error!");
+                if (added) {
+                    expected.add(g);
+                    byAppId.put(g.getSteam_appid(), g);
+                }
+            } else {
+                boolean removed = expected.remove(g);
+                if (catalog.remove(g) != removed)
+                    System.out.println("Remove result error!");
+                if (removed)
+                    byAppId.remove(g.getSteam_appid());
+            }
+        }
+        if (catalog.size() != expected.size())
+            System.out.println("Size error!");
+        for (Game g : games) {
+            if (catalog.contains(g) != expected.contains(g))
+                System.out.println("Contains error!");
+            if (catalog.getByAppId(g.getSteam_appid()) != byAppId.get(g.getSteam_appid()))
+                System.out.println("App id error!");
+        }
+
+        // an existing tree with a shared app id is refused
+        AVLTree<Game> tree = new AVLTree<>();
+        tree.insert(games[0]);
+        tree.insert(games[2000]);
+        try {
+            new GameCatalog(tree);
+            System.out.println("Shared app id was not rejected!");
+        } catch (IllegalArgumentException e) {
+            // games[0] and games[2000] share app id 0
+        }
+    }
+}
@@ -0,0 +1,88 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class TestGameCsvParser {
+    // Test program: writes a CSV with known rows, parses it with GameCsvParser and compares the Games
+    // with the ones the rows were made from
+    public static void main( String [ ] args ) throws IOException {
+        System.out.println("Checking... (no more output means success)");
+
+        Random random = new Random(10);
+        List<Game> expected = new ArrayList<>();
+        List<Long> badLines = new ArrayList<>();
+        int gamesInFirstRows = -1; // Games among the first 100 non-empty rows, counting malformed ones
+        int rows = 0;
+        StringBuilder csv = new StringBuilder("steam_appid,name,n_achievements,release_date,total_reviews,total_positive,"
+                + "total_negative,review_score,metacritic,price_initial\n");
+        long line = 1;
+        for (int i = 0; i < 5000; i++) {
+            line++;
+            int kind = random.nextInt(20);
+            if (kind != 2 && rows++ == 100)
+                gamesInFirstRows = expected.size();
+            if (kind == 0) {
+                csv.append("10,too,few,columns\n");
+                badLines.add(line);
+            } else if (kind == 1) {
+                csv.append("11,Name,x,Jan 1 2020,1,1,0,5,80,9.99\n");
+                badLines.add(line);
+            } else if (kind == 6) {
+                csv.append("12,Name,1,Jan 1 2020,1,1,0,5,80,9.99,extra\n"); // an eleventh field is not silently dropped
+                badLines.add(line);
+            } else if (kind == 2) {
+                csv.append("\n"); // empty lines are skipped without an error
+            } else {
+                String name = kind == 3 ? "Pokémon ☆ " + "long name ".repeat(random.nextInt(30)) : "Game " + random.nextInt(1000000);
+                String price = random.nextInt(10) + "." + random.nextInt(10) + random.nextInt(10);
+                if (kind == 4)
+                    price = "1.5e1";
+                Game g = new Game(random.nextInt(3000000), name, random.nextInt(500), "Mar " + (1 + random.nextInt(28)) + " 2020",
+                        random.nextInt(100000), random.nextInt(50000), random.nextInt(50000), random.nextInt(10),
+                        random.nextInt(101) - 1, Double.parseDouble(price));
+                expected.add(g);
+                csv.append(g.getSteam_appid()).append(',').append(name).append(',').append(g.getN_achievements()).append(',')
+                        .append(g.getRelease_date()).append(',').append(g.getTotal_reviews()).append(',')
+                        .append(g.getTotal_positive()).append(',').append(g.getTotal_negative()).append(',')
+                        .append(g.getReview_score()).append(',').append(g.getMetacritic()).append(',').append(price)
+                        .append(kind == 7 ? ",," : "") // trailing empty fields are ignored, as split(",") does
+                        .append(kind == 5 ? "\r\n" : "\n");
+            }
+        }
+        // the last row has no line terminator
+        Game last = new Game(42, "Last", 1, "Jan 1 2000", 2, 3, 4, 5, 6, 7.25);
+        expected.add(last);
+        csv.append("42,Last,1,Jan 1 2000,2,3,4,5,6,7.25");
+
+        Path file = Files.createTempFile("games", ".csv");
+        try {
+            Files.write(file, csv.toString().getBytes(StandardCharsets.UTF_8));
+            // a tiny buffer makes long rows span reads and grow the buffer
+            for (int bufferSize : new int[]{64, 1 << 16}) {
+                List<Game> parsed = new ArrayList<>();
+                List<Long> errors = new ArrayList<>();
+                int count = new GameCsvParser(bufferSize).parse(file, -1, parsed::add, (n, text, reason) -> errors.add(n));
+                if (count != expected.size() || !parsed.equals(expected))
+                    System.out.println("Parse error with a " + bufferSize + " byte buffer!");
+                if (!errors.equals(badLines))
+                    System.out.println("Malformed line numbers error with a " + bufferSize + " byte buffer!");
+            }
+
+            List<Game> firstRows = new ArrayList<>();
+            new GameCsvParser().parse(file, 100, firstRows::add, null);
+            if (!firstRows.equals(expected.subList(0, 100)))
+                System.out.println("MaxRows error!");
+
+            List<Game> firstLines = new ArrayList<>();
+            int count = new GameCsvParser().parseRows(file, 100, firstLines::add, null);
+            if (count != gamesInFirstRows || !firstLines.equals(expected.subList(0, gamesInFirstRows)))
+                System.out.println("ParseRows error!");
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
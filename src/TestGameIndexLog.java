@@ -0,0 +1,238 @@
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+public class TestGameIndexLog {
+    // Test program: makes changes through a GameIndexLog from several threads, with checkpoints running
+    // alongside, reopens it and compares the recovered Games with a TreeSet of what was acknowledged
+    public static void main( String [ ] args ) throws Exception {
+        System.out.println("Checking... (no more output means success)");
+
+        Path directory = Files.createTempDirectory("games");
+        Path snapshot = directory.resolve("games.snapshot");
+        Path logFile = directory.resolve("games.log");
+        try {
+            // a small threshold makes writers trigger checkpoints while others keep writing
+            GameIndexLog index = GameIndexLog.open(snapshot, logFile, 16 << 10);
+            List<Game> games = new ArrayList<>();
+            for (int i = 0; i < 2000; i++)
+                games.add(game(i));
+            TreeSet<Game> expected = new TreeSet<>();
+            List<Thread> threads = new ArrayList<>();
+            List<TreeSet<Game>> results = Collections.synchronizedList(new ArrayList<>());
+            for (int t = 0; t < 4; t++) {
+                int first = t * 500;
+                Thread thread = new Thread(() -> {
+                    TreeSet<Game> mine = new TreeSet<>();
+                    Random random = new Random(first);
+                    try {
+                        for (int i = 0; i < 3000; i++) {
+                            Game g = games.get(first + random.nextInt(500));
+                            boolean insert = random.nextBoolean();
+                            boolean changed = insert ? index.insert(g) : index.remove(g);
+                            if (changed != (insert ? mine.add(g) : mine.remove(g)))
+                                System.out.println("Change result error!");
+                        }
+                    } catch (IOException e) {
+                        System.out.println("Write error: " + e);
+                    }
+                    results.add(mine);
+                });
+                threads.add(thread);
+                thread.start();
+            }
+            for (int i = 0; i < 5; i++)
+                index.checkpoint();
+            for (Thread thread : threads)
+                thread.join();
+            for (TreeSet<Game> mine : results)
+                expected.addAll(mine);
+            if (index.size() != expected.size())
+                System.out.println("Size error!");
+            index.close();
+
+            GameIndexLog reopened = GameIndexLog.open(snapshot, logFile, 16 << 10);
+            if (reopened.size() != expected.size())
+                System.out.println("Recovery size error!");
+            for (Game g : games)
+                if (reopened.contains(g) != expected.contains(g))
+                    System.out.println("Recovery error!");
+
+            // one more change, then a torn record after it as if the process died mid-write
+            Game extra = game(5000);
+            reopened.insert(extra);
+            expected.add(extra);
+            reopened.close();
+            long intact = Files.size(logFile);
+            Files.write(logFile, new byte[]{0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+            GameIndexLog torn = GameIndexLog.open(snapshot, logFile, 16 << 10);
+            if (Files.size(logFile) != intact)
+                System.out.println("Torn record was not cut off!");
+            if (torn.size() != expected.size() || !torn.contains(extra))
+                System.out.println("Torn log recovery error!");
+
+            // a checkpoint empties the log and the snapshot alone recovers everything
+            torn.checkpoint();
+            if (torn.logSize() != 0 || Files.size(logFile) != 0)
+                System.out.println("Checkpoint did not empty the log!");
+            torn.close();
+            AVLTree<Game> loaded = GameSnapshot.load(snapshot);
+            if (loaded.size() != expected.size())
+                System.out.println("Snapshot size error!");
+            for (Game g : expected)
+                if (!loaded.contains(g))
+                    System.out.println("Snapshot error!");
+
+            try {
+                torn.insert(game(6000));
+                System.out.println("Closed log accepted a change!");
+            } catch (IOException e) {
+                // closed
+            }
+        } finally {
+            deleteDirectory(directory);
+        }
+
+        checkWriteFailure(true);
+        checkWriteFailure(false);
+    }
+
+    // makes the fsync of a remove (or an insert) fail after its record reached the file, then checks that the
+    // index is left exactly as before, refuses further changes, and that reopening doesn't replay the change
+    static void checkWriteFailure(boolean remove) throws Exception {
+        Path directory = Files.createTempDirectory("games");
+        Path snapshot = directory.resolve("games.snapshot");
+        Path logFile = directory.resolve("games.log");
+        try {
+            GameIndexLog index = GameIndexLog.open(snapshot, logFile, 1 << 20);
+            List<Game> before = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                before.add(game(i));
+                index.insert(game(i));
+            }
+            long durableSize = Files.size(logFile);
+
+            // same sort key as game(3) (metacritic, price, name), different everything else
+            Game stored = game(3);
+            Game probe = new Game(999, stored.getName(), 1, "Jan 1 1999", 1, 1, 1, 1, stored.getMetacritic(), stored.getPrice_initial());
+            Game changed = remove ? probe : game(100);
+            FailingChannel failing = failLog(index);
+            failing.failNextForce = true;
+            try {
+                if (remove)
+                    index.remove(changed);
+                else
+                    index.insert(changed);
+                System.out.println("Failed write was reported as a success!");
+            } catch (IOException e) {
+                // the fsync failed
+            }
+            if (failing.failNextForce)
+                System.out.println("Write failure was not injected!");
+            checkHolds(index, before, "rollback");
+            if (!remove && index.contains(changed))
+                System.out.println("Failed insert was left in the index!");
+            if (Files.size(logFile) != durableSize)
+                System.out.println("Failed record was left in the log!");
+            try {
+                index.insert(game(200));
+                System.out.println("Log accepted a change after a failed write!");
+            } catch (IOException e) {
+                if (!e.getMessage().contains("unusable"))
+                    System.out.println("Unexpected error after a failed write: " + e);
+            }
+            index.close();
+
+            GameIndexLog reopened = GameIndexLog.open(snapshot, logFile, 1 << 20);
+            checkHolds(reopened, before, "reopen");
+            if (!remove && reopened.contains(changed))
+                System.out.println("Failed insert was replayed!");
+            reopened.close();
+        } finally {
+            deleteDirectory(directory);
+        }
+    }
+
+    // prints an error unless the index holds exactly these Games, with every field as given
+    static void checkHolds(GameIndexLog index, List<Game> games, String when) {
+        if (index.size() != games.size())
+            System.out.println("Size error after " + when + "!");
+        for (Game g : games) {
+            Game stored = index.get(g);
+            if (stored == null || !stored.equals(g))
+                System.out.println("Game " + g.getSteam_appid() + " changed after " + when + "!");
+        }
+    }
+
+    // swaps the index's log channel for one that can be made to fail, and returns it
+    static FailingChannel failLog(GameIndexLog index) throws ReflectiveOperationException {
+        Field field = GameIndexLog.class.getDeclaredField("log");
+        field.setAccessible(true);
+        FailingChannel failing = new FailingChannel((FileChannel) field.get(index));
+        field.set(index, failing);
+        return failing;
+    }
+
+    // deletes a directory and the files in it
+    static void deleteDirectory(Path directory) throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path p : (Iterable<Path>) files::iterator)
+                Files.delete(p);
+        }
+        Files.delete(directory);
+    }
+
+    // FileChannel that passes everything to another one, except that the next force can be made to fail
+    static final class FailingChannel extends FileChannel {
+        private final FileChannel channel;
+        boolean failNextForce;
+
+        FailingChannel(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            if (failNextForce) {
+                failNextForce = false;
+                throw new IOException("injected fsync failure");
+            }
+            channel.force(metaData);
+        }
+
+        @Override public int read(ByteBuffer dst) throws IOException { return channel.read(dst); }
+        @Override public long read(ByteBuffer[] dsts, int offset, int length) throws IOException { return channel.read(dsts, offset, length); }
+        @Override public int write(ByteBuffer src) throws IOException { return channel.write(src); }
+        @Override public long write(ByteBuffer[] srcs, int offset, int length) throws IOException { return channel.write(srcs, offset, length); }
+        @Override public long position() throws IOException { return channel.position(); }
+        @Override public FileChannel position(long newPosition) throws IOException { channel.position(newPosition); return this; }
+        @Override public long size() throws IOException { return channel.size(); }
+        @Override public FileChannel truncate(long size) throws IOException { channel.truncate(size); return this; }
+        @Override public long transferTo(long position, long count, WritableByteChannel target) throws IOException { return channel.transferTo(position, count, target); }
+        @Override public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException { return channel.transferFrom(src, position, count); }
+        @Override public int read(ByteBuffer dst, long position) throws IOException { return channel.read(dst, position); }
+        @Override public int write(ByteBuffer src, long position) throws IOException { return channel.write(src, position); }
+        @Override public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException { return channel.map(mode, position, size); }
+        @Override public FileLock lock(long position, long size, boolean shared) throws IOException { return channel.lock(position, size, shared); }
+        @Override public FileLock tryLock(long position, long size, boolean shared) throws IOException { return channel.tryLock(position, size, shared); }
+        @Override protected void implCloseChannel() throws IOException { channel.close(); }
+    }
+
+    // returns a Game whose fields all depend on i
+    static Game game(int i) {
+        return new Game(i, "Game " + i, i % 50, "Mar " + (1 + i % 28) + " 2020", i * 3, i * 2, i, i % 10, i % 101, i / 100.0);
+    }
+}
@@ -0,0 +1,69 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+
+public class TestGameIngest {
+    // Test program: loads a CSV big enough to be split into several chunks in parallel and compares the result
+    // with the sequential parser
+    public static void main( String [ ] args ) throws IOException {
+        System.out.println("Checking... (no more output means success)");
+
+        Random random = new Random(11);
+        StringBuilder csv = new StringBuilder("steam_appid,name,n_achievements,release_date,total_reviews,total_positive,"
+                + "total_negative,review_score,metacritic,price_initial\n");
+        for (int i = 0; i < 60000; i++) {
+            if (i % 997 == 0)
+                csv.append("not,a,game\n");
+            else
+                csv.append(random.nextInt(3000000)).append(",Game ").append(random.nextInt(20000)).append(' ')
+                        .append("padding ".repeat(random.nextInt(8))).append(",10,Mar 1 2020,100,90,10,8,")
+                        .append(random.nextInt(101) - 1).append(',').append(random.nextInt(6000) / 100.0).append('\n');
+        }
+
+        Path file = Files.createTempFile("games", ".csv");
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Files.write(file, csv.toString().getBytes(StandardCharsets.UTF_8));
+            List<Game> expected = new ArrayList<>();
+            List<Long> expectedErrors = new ArrayList<>();
+            new GameCsvParser().parse(file, -1, expected::add, (n, line, reason) -> expectedErrors.add(n));
+
+            List<Long> errors = new ArrayList<>();
+            GameIngest ingest = GameIngest.load(file, -1, pool, (n, line, reason) -> errors.add(n));
+            if (ingest.size() != expected.size() || !ingest.games().equals(expected))
+                System.out.println("Parallel load error!");
+            if (!errors.equals(expectedErrors))
+                System.out.println("Malformed line numbers error!");
+
+            // sorted() keeps the first of each group of equal Games, in compareTo order
+            TreeSet<Game> distinct = new TreeSet<>();
+            List<Game> firsts = new ArrayList<>();
+            for (Game g : ingest.games())
+                if (distinct.add(g))
+                    firsts.add(g);
+            firsts.sort(null);
+            List<Game> sorted = ingest.sorted();
+            if (sorted.size() != firsts.size())
+                System.out.println("Sorted size error!");
+            for (int i = 0; i < sorted.size() && i < firsts.size(); i++)
+                if (sorted.get(i) != firsts.get(i)) {
+                    System.out.println("Sorted order error at " + i + "!");
+                    break;
+                }
+            if (ingest.toAVLTree().size() != distinct.size() || ingest.toBST().size() != distinct.size())
+                System.out.println("Tree build error!");
+
+            if (!GameIngest.load(file, 500, pool, null).games().equals(expected.subList(0, 500)))
+                System.out.println("Limited load error!");
+        } finally {
+            pool.shutdown();
+            Files.delete(file);
+        }
+    }
+}
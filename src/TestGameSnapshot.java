@@ -0,0 +1,90 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class TestGameSnapshot {
+    // Test program: saves a tree of Games, loads it back and compares every field, then checks that
+    // damaged snapshots are reported as IOExceptions
+    public static void main( String [ ] args ) throws IOException {
+        System.out.println("Checking... (no more output means success)");
+
+        Random random = new Random(13);
+        AVLTree<Game> tree = new AVLTree<>();
+        for (int i = 0; i < 20000; i++) {
+            String name = i % 50 == 0 ? "Pokémon ☆ " + i : "Game " + random.nextInt(1000000);
+            String date = i % 7 == 0 ? "" : "Mar " + (1 + random.nextInt(28)) + " 20" + (10 + random.nextInt(15));
+            tree.insert(new Game(random.nextInt(3000000), name, random.nextInt(500), date, random.nextInt(100000),
+                    random.nextInt(50000), random.nextInt(50000), random.nextInt(10), random.nextInt(101) - 1,
+                    random.nextInt(6000) / 100.0));
+        }
+
+        Path file = Files.createTempFile("games", ".snap");
+        try {
+            GameSnapshot.save(tree, file);
+            AVLTree<Game> loaded = GameSnapshot.load(file);
+            loaded.checkBalance();
+            List<Game> before = toList(tree);
+            List<Game> after = toList(loaded);
+            if (!before.equals(after))
+                System.out.println("Round trip error!");
+            for (int i = 0; i < before.size() && i < after.size(); i++) {
+                if (before.get(i).getPrice_initial() != after.get(i).getPrice_initial()
+                        || before.get(i).getReleaseDay() != after.get(i).getReleaseDay()) {
+                    System.out.println("Round trip field error at " + i + "!");
+                    break;
+                }
+            }
+
+            // an empty tree round-trips too
+            GameSnapshot.save(new AVLTree<>(), file);
+            if (!GameSnapshot.load(file).isEmpty())
+                System.out.println("Empty round trip error!");
+
+            // two Games whose metacritic scores (the first sort key) are swapped on disk are out of order
+            AVLTree<Game> two = new AVLTree<>();
+            two.insert(new Game(1, "A", 0, "", 0, 0, 0, 0, 10, 0));
+            two.insert(new Game(2, "B", 0, "", 0, 0, 0, 0, 90, 0));
+            GameSnapshot.save(two, file);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                ByteBuffer metacritic = ByteBuffer.allocate(2 * Integer.BYTES).putInt(90).putInt(10);
+                metacritic.flip();
+                channel.write(metacritic, 24 + 6 * 2 * Integer.BYTES);
+            }
+            expectIOException(file, "Out-of-order snapshot was not rejected!");
+
+            // a snapshot cut short
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(channel.size() - 1);
+            }
+            expectIOException(file, "Truncated snapshot was not rejected!");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // loads file and prints message unless that throws an IOException
+    static void expectIOException(Path file, String message) {
+        try {
+            GameSnapshot.load(file);
+            System.out.println(message);
+        } catch (IOException expected) {
+            // the damage was caught
+        } catch (RuntimeException e) {
+            System.out.println(message + " (" + e + ")");
+        }
+    }
+
+    // returns the items of a tree in iteration order
+    static <T extends Comparable<? super T>> List<T> toList(Iterable<T> tree) {
+        List<T> items = new ArrayList<>();
+        for (T x : tree)
+            items.add(x);
+        return items;
+    }
+}
@@ -0,0 +1,78 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+public class TestGameTail {
+    // Test program: appends rows to a CSV in pieces, polls a GameTail after each piece and checks that every
+    // complete row arrives exactly once, and that a truncated file is read again from the start
+    public static void main( String [ ] args ) throws IOException {
+        System.out.println("Checking... (no more output means success)");
+
+        Path file = Files.createTempFile("games", ".csv");
+        try {
+            List<Game> received = new ArrayList<>();
+            List<Long> badLines = new ArrayList<>();
+            GameTail tail = new GameTail(file, received::addAll, (lineNumber, line, reason) -> badLines.add(lineNumber));
+
+            append(file, "steam_appid,name,n_achievements,release_date,total_reviews,total_positive,"
+                    + "total_negative,review_score,metacritic,price_initial\n");
+            if (tail.poll() != 0 || !received.isEmpty())
+                System.out.println("Header was parsed as a game!");
+
+            List<Game> expected = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                expected.add(game(i));
+                append(file, row(i));
+            }
+            // a row still being written is left for a later poll
+            String half = row(200);
+            append(file, half.substring(0, 10));
+            if (tail.poll() != 200 || !received.equals(expected))
+                System.out.println("First poll error!");
+            append(file, half.substring(10));
+            expected.add(game(200));
+            append(file, "not,a,game\n");
+            if (tail.poll() != 1 || !received.equals(expected))
+                System.out.println("Partial row error!");
+            if (badLines.size() != 1 || badLines.get(0) != 203)
+                System.out.println("Bad line error: " + badLines);
+            if (tail.poll() != 0)
+                System.out.println("Poll without new rows returned games!");
+
+            // resuming from a saved position sees only what comes after it
+            List<Game> resumed = new ArrayList<>();
+            GameTail second = new GameTail(file, tail.offset(), tail.nextLine(), resumed::addAll, null);
+            append(file, row(201));
+            if (second.poll() != 1 || !resumed.equals(List.of(game(201))))
+                System.out.println("Resume error!");
+
+            // a shorter file is taken to be a new one
+            Files.writeString(file, "steam_appid,name\n" + row(300), StandardCharsets.UTF_8);
+            received.clear();
+            if (tail.poll() != 1 || !received.equals(List.of(game(300))))
+                System.out.println("Truncation error!");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // appends text to file
+    static void append(Path file, String text) throws IOException {
+        Files.writeString(file, text, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+    }
+
+    // returns the CSV row of game(i)
+    static String row(int i) {
+        return i + ",Game " + i + "," + (i % 50) + ",Mar " + (1 + i % 28) + " 2020," + (i * 3) + "," + (i * 2) + "," + i
+                + "," + (i % 10) + "," + (i % 101) + "," + (i / 100.0) + "\n";
+    }
+
+    // returns a Game whose fields all depend on i
+    static Game game(int i) {
+        return new Game(i, "Game " + i, i % 50, "Mar " + (1 + i % 28) + " 2020", i * 3, i * 2, i, i % 10, i % 101, i / 100.0);
+    }
+}
@@ -0,0 +1,63 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+public class TestNameIndex {
+    // Test program: builds a NameIndex over names with long shared prefixes, repeats and mixed case, and
+    // checks every query against a linear scan of the games sorted the same way
+    public static void main( String [ ] args ) {
+        System.out.println("Checking... (no more output means success)");
+
+        Random random = new Random(23);
+        String[] words = {"the", "The", "elder", "scrolls", "ELDER", "a", "ab", "abc", "b", "\uffff", "z"};
+        List<Game> games = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            StringBuilder name = new StringBuilder();
+            int length = random.nextInt(5);
+            for (int w = 0; w < length; w++)
+                name.append(w == 0 ? "" : " ").append(words[random.nextInt(words.length)]);
+            games.add(new Game(i, name.toString(), 0, "", random.nextInt(50), 0, 0, 0, 0, 0));
+        }
+        NameIndex index = new NameIndex(games);
+        List<Game> sorted = new ArrayList<>(games);
+        sorted.sort(Comparator.comparing((Game g) -> fold(g)).thenComparingInt(Game::getSteam_appid));
+        if (index.size() != games.size())
+            System.out.println("Size error!");
+
+        List<String> keys = new ArrayList<>(List.of("", "t", "T", "th", "the", "the ", "the elder", "ELDER SCROLLS", "a", "ab",
+                "abc", "abd", "b", "\uffff", "\uffff\uffff", "z", "zz", "0", "{"));
+        for (Game g : games)
+            if (g.getSteam_appid() % 50 == 0)
+                keys.add(g.getName());
+        for (String key : keys) {
+            String folded = key.toLowerCase(Locale.ROOT);
+            List<Game> prefixed = new ArrayList<>();
+            List<Game> equal = new ArrayList<>();
+            for (Game g : sorted) {
+                if (fold(g).startsWith(folded))
+                    prefixed.add(g);
+                if (fold(g).equals(folded))
+                    equal.add(g);
+            }
+            if (index.countPrefix(key) != prefixed.size())
+                System.out.println("CountPrefix error for \"" + key + "\"!");
+            if (!index.prefix(key, 7).equals(prefixed.subList(0, Math.min(7, prefixed.size()))))
+                System.out.println("Prefix error for \"" + key + "\"!");
+            if (!index.exact(key).equals(equal))
+                System.out.println("Exact error for \"" + key + "\"!");
+            List<Game> best = new ArrayList<>(prefixed);
+            best.sort(Comparator.comparingInt(Game::getTotal_reviews).reversed()); // stable, so ties stay in name order
+            if (!index.complete(key, 10).equals(best.subList(0, Math.min(10, best.size()))))
+                System.out.println("Complete error for \"" + key + "\"!");
+        }
+        if (!new NameIndex(List.of()).exact("x").isEmpty() || new NameIndex(List.of()).countPrefix("") != 0)
+            System.out.println("Empty index error!");
+    }
+
+    // returns the name of g lower-cased the way the index does
+    static String fold(Game g) {
+        return g.getName().toLowerCase(Locale.ROOT);
+    }
+}
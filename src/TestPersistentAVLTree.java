@@ -0,0 +1,90 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+public class TestPersistentAVLTree {
+    // Test program: makes a chain of versions alongside TreeSet copies and checks that every old version
+    // still holds exactly what it held when it was made
+    public static void main( String [ ] args ) throws InterruptedException {
+        System.out.println("Checking... (no more output means success)");
+
+        Random random = new Random(18);
+        PersistentAVLTree<Integer> t = PersistentAVLTree.empty();
+        TreeSet<Integer> expected = new TreeSet<>();
+        List<PersistentAVLTree<Integer>> versions = new ArrayList<>();
+        List<List<Integer>> contents = new ArrayList<>();
+        for (int i = 0; i < 40000; i++) {
+            int x = random.nextInt(20000);
+            PersistentAVLTree<Integer> next;
+            if (random.nextInt(3) == 0) {
+                next = t.remove(x);
+                if ((next != t) != expected.remove(x))
+                    System.out.println("Remove error!");
+            } else {
+                next = t.insert(x);
+                if ((next != t) != expected.add(x))
+                    System.out.println("Insert error!");
+            }
+            t = next;
+            if (i % 1000 == 0) {
+                versions.add(t);
+                contents.add(new ArrayList<>(expected));
+            }
+        }
+        for (int v = 0; v < versions.size(); v++) {
+            PersistentAVLTree<Integer> version = versions.get(v);
+            if (version.size() != contents.get(v).size() || !toList(version).equals(contents.get(v)))
+                System.out.println("Old version changed!");
+        }
+        for (int x = -1; x <= 20000; x++) {
+            if (t.contains(x) != expected.contains(x))
+                System.out.println("Contains error!");
+            if (t.rank(x) != expected.headSet(x).size())
+                System.out.println("Rank error!");
+        }
+        if (!t.findMin().equals(expected.first()) || !t.findMax().equals(expected.last()))
+            System.out.println("FindMin or FindMax error!");
+
+        if (!toList(PersistentAVLTree.fromSorted(new ArrayList<>(expected))).equals(new ArrayList<>(expected)))
+            System.out.println("FromSorted error!");
+        try {
+            PersistentAVLTree.fromSorted(List.of(2, 1));
+            System.out.println("Unsorted input was not rejected!");
+        } catch (IllegalArgumentException e) {
+            // out of order
+        }
+        try {
+            PersistentAVLTree.<Integer>empty().findMin();
+            System.out.println("FindMin on an empty tree did not throw!");
+        } catch (UnderflowException e) {
+            // empty
+        }
+
+        // writers racing on one Reference lose no updates
+        PersistentAVLTree.Reference<Integer> shared = new PersistentAVLTree.Reference<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < 4; w++) {
+            int first = w * 10000;
+            Thread thread = new Thread(() -> {
+                for (int i = first; i < first + 10000; i++)
+                    shared.insert(i);
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads)
+            thread.join();
+        PersistentAVLTree<Integer> all = shared.snapshot();
+        if (all.size() != 40000 || all.findMin() != 0 || all.findMax() != 39999)
+            System.out.println("Reference error!");
+    }
+
+    // returns the items of a tree in iteration order
+    static <T extends Comparable<? super T>> List<T> toList(Iterable<T> tree) {
+        List<T> items = new ArrayList<>();
+        for (T x : tree)
+            items.add(x);
+        return items;
+    }
+}
@@ -0,0 +1,67 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+public class TestPooledAVLTree {
+    // Test program: runs the TestAvl sequence on a PooledAVLTree, then a random workload against a TreeSet
+    public static void main( String [ ] args ) {
+        PooledAVLTree<Integer> t = new PooledAVLTree<>();
+        final int NUMS = 1000000;  // must be even
+        final int GAP = 37;
+
+        System.out.println("Checking... (no more output means success)");
+
+        for (int i = GAP; i != 0; i = (i + GAP) % NUMS)
+            t.insert(i);
+        for (int i = 1; i < NUMS; i += 2)
+            t.remove(i);
+        if (t.findMin() != 2 || t.findMax() != NUMS - 2 || t.size() != NUMS / 2 - 1)
+            System.out.println("FindMin, FindMax or size error!");
+        for (int i = 2; i < NUMS; i += 2)
+            if (!t.contains(i))
+                System.out.println("Find error1!");
+        for (int i = 1; i < NUMS; i += 2)
+            if (t.contains(i))
+                System.out.println("Find error2!");
+
+        // removed slots are reused, so mix inserts and removes and compare with a TreeSet
+        Random random = new Random(9);
+        PooledAVLTree<Integer> pooled = new PooledAVLTree<>(4);
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int step = 0; step < 50000; step++) {
+            int x = random.nextInt(3000);
+            if (random.nextInt(3) == 0) {
+                if (pooled.remove(x) != expected.remove(x))
+                    System.out.println("Remove result error!");
+            } else {
+                pooled.insert(x);
+                expected.add(x);
+            }
+            if (pooled.size() != expected.size() || pooled.contains(x) != expected.contains(x))
+                System.out.println("Size or contains error!");
+            if (step % 5000 == 0) {
+                pooled.checkBalance();
+                if (!toList(pooled).equals(new ArrayList<>(expected)))
+                    System.out.println("Iterator error!");
+            }
+        }
+        pooled.makeEmpty();
+        if (!pooled.isEmpty() || pooled.size() != 0 || pooled.iterator().hasNext())
+            System.out.println("MakeEmpty error!");
+        try {
+            pooled.findMin();
+            System.out.println("FindMin of an empty tree did not throw!");
+        } catch (UnderflowException expectedException) {
+            // expected
+        }
+    }
+
+    // returns the items of a tree in iteration order
+    static <T> List<T> toList(Iterable<T> tree) {
+        List<T> items = new ArrayList<>();
+        for (T x : tree)
+            items.add(x);
+        return items;
+    }
+}
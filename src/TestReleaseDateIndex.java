@@ -0,0 +1,78 @@
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+public class TestReleaseDateIndex {
+    // Test program: checks Steam date parsing, then every ReleaseDateIndex query against a scan of the games
+    public static void main( String [ ] args ) {
+        System.out.println("Checking... (no more output means success)");
+
+        String[][] dates = {
+                {"2020-03-23", "2020-03-23"}, {"Mar 23, 2020", "2020-03-23"}, {"23 Mar, 2020", "2020-03-23"},
+                {"Mar 2020", "2020-03-01"}, {"March 5, 2021", "2021-03-05"}, {"Feb 29, 2020", "2020-02-29"},
+                {"Feb 29, 2019", null}, {"Coming soon", null}, {"Q2 2025", null}, {"", null}, {"2020", null}};
+        for (String[] d : dates) {
+            int expected = d[1] == null ? Game.UNDATED : (int) LocalDate.parse(d[1]).toEpochDay();
+            if (Game.parseReleaseDay(d[0]) != expected)
+                System.out.println("Date parse error for \"" + d[0] + "\"!");
+        }
+
+        Random random = new Random(24);
+        DateTimeFormatter steam = DateTimeFormatter.ofPattern("MMM d, yyyy", Locale.ENGLISH);
+        List<Game> games = new ArrayList<>();
+        List<LocalDate> released = new ArrayList<>(); // null for undated games
+        int undated = 0;
+        for (int i = 0; i < 20000; i++) {
+            LocalDate date = LocalDate.of(2000, 1, 1).plusDays(random.nextInt(9000));
+            String text = i % 3 == 0 ? date.toString() : date.format(steam);
+            if (i % 50 == 0) {
+                text = "Coming soon";
+                date = null;
+                undated++;
+            }
+            games.add(new Game(i, "Game " + i, 0, text, 0, 0, 0, 0, 0, 0));
+            released.add(date);
+        }
+        ReleaseDateIndex index = new ReleaseDateIndex(games);
+        if (index.size() != games.size() - undated || index.undatedCount() != undated)
+            System.out.println("Size error!");
+
+        for (int q = 0; q < 300; q++) {
+            LocalDate from = LocalDate.of(1999, 12, 1).plusDays(random.nextInt(9100));
+            LocalDate to = from.plusDays(random.nextInt(q % 2 == 0 ? 40 : 2000) - 5);
+            List<Game> expected = new ArrayList<>();
+            SortedMap<YearMonth, Integer> months = new TreeMap<>();
+            SortedMap<Integer, Integer> years = new TreeMap<>();
+            for (int i = 0; i < games.size(); i++) {
+                LocalDate date = released.get(i);
+                if (date != null && !date.isBefore(from) && !date.isAfter(to)) {
+                    expected.add(games.get(i));
+                    months.merge(YearMonth.from(date), 1, Integer::sum);
+                    years.merge(date.getYear(), 1, Integer::sum);
+                }
+            }
+            // oldest first, ties in input order
+            expected.sort((a, b) -> Integer.compare(a.getReleaseDay(), b.getReleaseDay()));
+            if (index.count(from, to) != expected.size() || !index.between(from, to).equals(expected))
+                System.out.println("Between error!");
+            if (!index.monthHistogram(from, to).equals(months) || !index.yearHistogram(from, to).equals(years))
+                System.out.println("Histogram error!");
+            int n = (int) (to.toEpochDay() - from.toEpochDay()) + 1;
+            if (n > 0 && !index.releasedInLast(n, to).equals(expected))
+                System.out.println("ReleasedInLast error!");
+        }
+        int total = 0;
+        for (int count : index.monthHistogram().values())
+            total += count;
+        if (total != index.size() || index.yearHistogram().size() != 25)
+            System.out.println("Full histogram error!");
+        if (!index.releasedInLast(0, LocalDate.now()).isEmpty() || index.count(LocalDate.MIN, LocalDate.MAX) != index.size())
+            System.out.println("Edge case error!");
+    }
+}
@@ -0,0 +1,101 @@
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+public class TestTreeStats {
+    // Test program: must be run with -Dtree.stats=true. Checks the rotation, operation, depth and latency
+    // counters AVLTree feeds into TreeStats.AVL, reset(), and the JMX registration
+    public static void main( String [ ] args ) throws Exception {
+        System.out.println("Checking... (no more output means success)");
+        if (!TreeStats.ENABLED) {
+            System.out.println("Stats are off: run with -Dtree.stats=true");
+            return;
+        }
+        TreeStats stats = TreeStats.AVL;
+
+        // ascending inserts only ever lean right the same way: single rotations only
+        stats.reset();
+        AVLTree<Integer> ascending = new AVLTree<>();
+        for (int i = 0; i < 1000; i++)
+            ascending.insert(i);
+        if (stats.getSingleRotations() == 0 || stats.getDoubleRotations() != 0)
+            System.out.println("Ascending rotation error: " + stats.snapshot());
+
+        // 3, 1, 2 leaves 3 with a left child leaning right: one double rotation each time
+        stats.reset();
+        for (int i = 0; i < 10; i++) {
+            AVLTree<Integer> zigZag = new AVLTree<>();
+            zigZag.insert(3);
+            zigZag.insert(1);
+            zigZag.insert(2);
+        }
+        if (stats.getDoubleRotations() != 10 || stats.getSingleRotations() != 0)
+            System.out.println("Zig-zag rotation error: " + stats.snapshot());
+
+        // each operation is counted once, whether or not it found anything
+        stats.reset();
+        Random random = new Random(16);
+        AVLTree<Integer> t = new AVLTree<>();
+        final int INSERTS = 100000, LOOKUPS = 50000, REMOVES = 30000;
+        for (int i = 0; i < INSERTS; i++)
+            t.insert(random.nextInt(200000));
+        for (int i = 0; i < LOOKUPS; i++)
+            t.contains(random.nextInt(200000));
+        for (int i = 0; i < REMOVES; i++)
+            t.remove(random.nextInt(200000));
+        TreeStats.Snapshot snapshot = stats.snapshot();
+        long[] expectedCounts = {INSERTS, LOOKUPS, REMOVES};
+        long comparisons = 0;
+        for (TreeStats.Op op : TreeStats.Op.values()) {
+            TreeStats.OperationSnapshot s = snapshot.get(op);
+            if (s.getCount() != expectedCounts[op.ordinal()])
+                System.out.println(op + " count error: " + s);
+            long timed = 0;
+            for (long c : s.getLatencyHistogram())
+                timed += c;
+            if (timed != s.getCount())
+                System.out.println(op + " latency histogram error: " + s);
+            if (s.getComparisons() <= 0 || s.getNodesVisited() < s.getCount() / 2)
+                System.out.println(op + " comparison or visit error: " + s);
+            if (s.getMedianNanos() > s.getP99Nanos())
+                System.out.println(op + " percentile error: " + s);
+            comparisons += s.getComparisons();
+        }
+        if (stats.getComparisons() != comparisons)
+            System.out.println("Total comparisons error!");
+        // an AVL tree of n nodes is less than 1.4405 log2(n + 2) high, and a search visits at most height + 1 nodes
+        double bound = 1.4405 * Math.log(INSERTS + 2) / Math.log(2) + 1;
+        if (stats.getMaxDepth() > bound || stats.getMaxDepth() < Math.log(t.size()) / Math.log(2))
+            System.out.println("Max depth " + stats.getMaxDepth() + " outside the AVL bounds!");
+
+        stats.reset();
+        snapshot = stats.snapshot();
+        if (stats.getComparisons() != 0 || stats.getSingleRotations() != 0 || stats.getDoubleRotations() != 0
+                || stats.getMaxDepth() != 0 || stats.getAverageDepth() != 0)
+            System.out.println("Reset left a total!");
+        for (TreeStats.Op op : TreeStats.Op.values()) {
+            TreeStats.OperationSnapshot s = snapshot.get(op);
+            long timed = 0;
+            for (long c : s.getLatencyHistogram())
+                timed += c;
+            if (s.getCount() != 0 || s.getComparisons() != 0 || s.getNodesVisited() != 0 || s.getMaxDepth() != 0 || timed != 0)
+                System.out.println("Reset left a counter of " + op + "!");
+        }
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName("TreeStats:type=AVLTree");
+        if (!server.isRegistered(name))
+            System.out.println("MBean is not registered!");
+        else {
+            t.insert(-1);
+            t.insert(-2);
+            t.insert(-3);
+            if (!Long.valueOf(stats.getSingleRotations()).equals(server.getAttribute(name, "SingleRotations")))
+                System.out.println("MBean attribute error!");
+            server.invoke(name, "reset", null, null);
+            if (stats.getSingleRotations() != 0)
+                System.out.println("MBean reset error!");
+        }
+    }
+}
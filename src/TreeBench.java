@@ -0,0 +1,231 @@
+/************************************************************************
+ * @file: TreeBench.java
+ * @description: Benchmark harness for AVLTree, PooledAVLTree, BPlusTree and BST operations. Every case is warmed up
+ *               before it is measured and repeated several times, and results are reported as ns/op and ops/sec.
+ *               Cases are parameterized by N, by input order (sorted, shuffled, reverse, zipfian) and
+ *               by key type (Game and Integer).
+ * @author: Will S
+ * @date: October 18, 2026
+ ************************************************************************/
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+public class TreeBench {
+    //input orders used both for inserting keys and for probing them
+    enum Order { SORTED, SHUFFLED, REVERSE, ZIPFIAN }
+
+    //key types the trees are benchmarked with
+    enum KeyType { GAME, INTEGER }
+
+    private static final int[] DEFAULT_SIZES = { 1024, 4096, 16384 };
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASURE_ITERATIONS = 10;
+    private static final long SEED = 201L;
+    private static final double ZIPF_EXPONENT = 0.99; //same skew YCSB uses
+
+    //written to after every measured loop so the JIT can't drop the work as dead code
+    private static volatile long sink;
+
+    //Common surface of the trees under test, so each operation is timed the same way for all of them
+    private interface Subject<T> {
+        void insert(T x);
+        boolean contains(T x);
+        void remove(T x);
+    }
+
+    //wraps an AVLTree in a Subject
+    private static <T extends Comparable<T>> Subject<T> avlTree() {
+        AVLTree<T> tree = new AVLTree<>();
+        return new Subject<T>() {
+            public void insert(T x) { tree.insert(x); }
+            public boolean contains(T x) { return tree.contains(x); }
+            public void remove(T x) { tree.remove(x); }
+        };
+    }
+
+    //wraps a PooledAVLTree in a Subject
+    private static <T extends Comparable<T>> Subject<T> pooledAvlTree() {
+        PooledAVLTree<T> tree = new PooledAVLTree<>();
+        return new Subject<T>() {
+            public void insert(T x) { tree.insert(x); }
+            public boolean contains(T x) { return tree.contains(x); }
+            public void remove(T x) { tree.remove(x); }
+        };
+    }
+
+    //wraps a BPlusTree (default fanout) in a Subject
+    private static <T extends Comparable<T>> Subject<T> bPlusTree() {
+        BPlusTree<T> tree = new BPlusTree<>();
+        return new Subject<T>() {
+            public void insert(T x) { tree.insert(x); }
+            public boolean contains(T x) { return tree.contains(x); }
+            public void remove(T x) { tree.remove(x); }
+        };
+    }
+
+    //wraps a BST in a Subject
+    private static <T extends Comparable<T>> Subject<T> bst() {
+        BST<T> tree = new BST<>();
+        return new Subject<T>() {
+            public void insert(T x) { tree.insert(x); }
+            public boolean contains(T x) { return tree.search(x) != null; }
+            public void remove(T x) { tree.remove(x); }
+        };
+    }
+
+    //Usage: java TreeBench [N ...]
+    public static void main(String[] args) {
+        int[] sizes = DEFAULT_SIZES;
+        if (args.length > 0) {
+            sizes = new int[args.length];
+            for (int i = 0; i < args.length; i++) sizes[i] = Integer.parseInt(args[i]);
+        }
+        runAll(sizes);
+    }
+
+    //runs every (N, key type, order, tree, operation) combination and prints one line per case
+    private static void runAll(int[] sizes) {
+        System.out.printf("%-9s %-9s %-8s %-9s %8s %14s %16s %12s%n",
+                "Tree", "Operation", "Key", "Order", "N", "ns/op", "ops/sec", "+/- ns/op");
+        for (int n : sizes) {
+            for (KeyType keyType : KeyType.values()) {
+                for (Order order : Order.values()) {
+                    if (keyType == KeyType.GAME) runCase(n, keyType, order, gameKeys(n));
+                    else runCase(n, keyType, order, integerKeys(n));
+                }
+            }
+        }
+    }
+
+    //benchmarks insert, contains/search and remove for every tree on one key sequence
+    private static <T extends Comparable<T>> void runCase(int n, KeyType keyType, Order order, List<T> sortedKeys) {
+        List<T> sequence = arrange(sortedKeys, order);
+        measure("AVLTree", "insert", keyType, order, n, TreeBench::avlTree, sequence, Op.INSERT);
+        measure("AVLTree", "contains", keyType, order, n, TreeBench::avlTree, sequence, Op.CONTAINS);
+        measure("AVLTree", "remove", keyType, order, n, TreeBench::avlTree, sequence, Op.REMOVE);
+        measure("PooledAVL", "insert", keyType, order, n, TreeBench::pooledAvlTree, sequence, Op.INSERT);
+        measure("PooledAVL", "contains", keyType, order, n, TreeBench::pooledAvlTree, sequence, Op.CONTAINS);
+        measure("PooledAVL", "remove", keyType, order, n, TreeBench::pooledAvlTree, sequence, Op.REMOVE);
+        measure("BPlusTree", "insert", keyType, order, n, TreeBench::bPlusTree, sequence, Op.INSERT);
+        measure("BPlusTree", "contains", keyType, order, n, TreeBench::bPlusTree, sequence, Op.CONTAINS);
+        measure("BPlusTree", "remove", keyType, order, n, TreeBench::bPlusTree, sequence, Op.REMOVE);
+        measure("BST", "insert", keyType, order, n, TreeBench::bst, sequence, Op.INSERT);
+        measure("BST", "search", keyType, order, n, TreeBench::bst, sequence, Op.CONTAINS);
+        measure("BST", "remove", keyType, order, n, TreeBench::bst, sequence, Op.REMOVE);
+    }
+
+    private enum Op { INSERT, CONTAINS, REMOVE }
+
+    //warms up, then times MEASURE_ITERATIONS runs of one operation over the whole sequence and prints the result
+    private static <T> void measure(String treeName, String opName, KeyType keyType, Order order, int n,
+                                    Supplier<Subject<T>> factory, List<T> sequence, Op op) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) runOnce(factory, sequence, op);
+        double[] nsPerOp = new double[MEASURE_ITERATIONS];
+        for (int i = 0; i < MEASURE_ITERATIONS; i++) {
+            nsPerOp[i] = (double) runOnce(factory, sequence, op) / sequence.size();
+        }
+        double mean = 0;
+        for (double v : nsPerOp) mean += v;
+        mean /= nsPerOp.length;
+        double var = 0;
+        for (double v : nsPerOp) var += (v - mean) * (v - mean);
+        double stdDev = Math.sqrt(var / (nsPerOp.length - 1));
+        System.out.printf("%-9s %-9s %-8s %-9s %8d %14.1f %,16.0f %12.1f%n",
+                treeName, opName, keyType, order, n, mean, 1e9 / mean, stdDev);
+    }
+
+    //Runs one operation over the whole sequence and returns the elapsed time in ns.
+    //Trees needed by contains and remove are built before the clock starts.
+    private static <T> long runOnce(Supplier<Subject<T>> factory, List<T> sequence, Op op) {
+        Subject<T> tree = factory.get();
+        if (op != Op.INSERT) {
+            for (T x : sequence) tree.insert(x);
+        }
+        long hits = 0;
+        long start = System.nanoTime();
+        switch (op) {
+            case INSERT:
+                for (T x : sequence) tree.insert(x);
+                break;
+            case CONTAINS:
+                for (T x : sequence) if (tree.contains(x)) hits++;
+                break;
+            case REMOVE:
+                for (T x : sequence) tree.remove(x);
+                break;
+        }
+        long elapsed = System.nanoTime() - start;
+        sink += hits;
+        return elapsed;
+    }
+
+    //returns the keys in the given order; ZIPFIAN draws N keys with replacement, skewed towards a few hot keys
+    private static <T> List<T> arrange(List<T> sortedKeys, Order order) {
+        List<T> keys = new ArrayList<>(sortedKeys);
+        switch (order) {
+            case SORTED:
+                return keys;
+            case REVERSE:
+                Collections.reverse(keys);
+                return keys;
+            case SHUFFLED:
+                Collections.shuffle(keys, new Random(SEED));
+                return keys;
+            default:
+                //shuffle first so the hot keys are spread across the key space instead of all being the smallest ones
+                Random random = new Random(SEED);
+                Collections.shuffle(keys, random);
+                double[] cdf = zipfCdf(keys.size());
+                List<T> drawn = new ArrayList<>(keys.size());
+                for (int i = 0; i < keys.size(); i++) {
+                    int rank = Arrays.binarySearch(cdf, random.nextDouble());
+                    if (rank < 0) rank = -rank - 1;
+                    drawn.add(keys.get(Math.min(rank, keys.size() - 1)));
+                }
+                return drawn;
+        }
+    }
+
+    //cumulative distribution of a Zipf distribution over ranks 1..n
+    private static double[] zipfCdf(int n) {
+        double[] cdf = new double[n];
+        double total = 0;
+        for (int i = 0; i < n; i++) {
+            total += 1.0 / Math.pow(i + 1, ZIPF_EXPONENT);
+            cdf[i] = total;
+        }
+        for (int i = 0; i < n; i++) cdf[i] /= total;
+        return cdf;
+    }
+
+    //returns n distinct Integer keys in sorted order
+    private static List<Integer> integerKeys(int n) {
+        List<Integer> keys = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) keys.add(i);
+        return keys;
+    }
+
+    //Returns n distinct synthetic Games in sorted order.
+    //Like the Steam dataset, most games have no metacritic score and share a handful of prices, so compareTo
+    //often falls through to the name tiebreaker.
+    private static List<Game> gameKeys(int n) {
+        Random random = new Random(SEED);
+        double[] prices = { 0.0, 0.99, 4.99, 9.99, 14.99, 19.99, 29.99, 59.99 };
+        List<Game> keys = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            int metacritic = random.nextInt(4) == 0 ? 40 + random.nextInt(60) : 0;
+            double price = prices[random.nextInt(prices.length)];
+            int reviews = random.nextInt(10000);
+            int positive = random.nextInt(reviews + 1);
+            keys.add(new Game(100000 + i, "Game " + Integer.toString(i, 36).toUpperCase(), random.nextInt(100),
+                    "2025-01-01", reviews, positive, reviews - positive, random.nextInt(10), metacritic, price));
+        }
+        Collections.sort(keys);
+        return keys;
+    }
+}
@@ -0,0 +1,278 @@
+/************************************************************************
+ * @file: TreeStats.java
+ * @description: Optional hot-path counters for AVLTree and BST: comparisons, rotations, nodes visited and
+ *               depth per operation, and a latency histogram per operation type. Read them with snapshot()
+ *               or over JMX. Turned on with -Dtree.stats=true; when off, the trees never touch them.
+ * @author: Will S
+ * @date: October 18, 2026
+ ************************************************************************/
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * ENABLED is a static final read once at class load, so every "if (TreeStats.ENABLED)"
+ * in the trees is a constant the JIT folds away: with stats off, the trees run exactly
+ * the code they would without them. With stats on, the counters are LongAdders and
+ * atomic arrays, so concurrent readers of a tree don't lose counts.
+ *
+ * There is one TreeStats per tree class (AVL and BST) rather than per tree, registered
+ * as the MBeans "TreeStats:type=AVLTree" and "TreeStats:type=BST".
+ */
+public final class TreeStats implements TreeStatsMXBean {
+    public static final boolean ENABLED = Boolean.getBoolean("tree.stats");
+
+    //Operations that are counted and timed separately
+    public enum Op { INSERT, CONTAINS, REMOVE }
+
+    // Latency buckets: bucket b counts operations taking [2^(b-1), 2^b) ns, bucket 0 counts 0 ns
+    private static final int BUCKETS = 64;
+
+    public static final TreeStats AVL = new TreeStats("AVLTree");
+    public static final TreeStats BST = new TreeStats("BST");
+
+    private final String tree;
+    private final LongAdder singleRotations = new LongAdder();
+    private final LongAdder doubleRotations = new LongAdder();
+    private final OperationStats[] ops = new OperationStats[Op.values().length];
+
+    private TreeStats(String tree) {
+        this.tree = tree;
+        for (Op op : Op.values()) ops[op.ordinal()] = new OperationStats();
+        if (ENABLED) register();
+    }
+
+    //Registers this TreeStats with the platform MBean server; stats still work if that fails
+    private void register() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName("TreeStats:type=" + tree);
+            if (!server.isRegistered(name)) server.registerMBean(this, name);
+        } catch (JMException | SecurityException e) {
+            System.err.println("TreeStats: could not register " + tree + " with JMX: " + e);
+        }
+    }
+
+    //Returns the start time of an operation, or 0 if stats are off
+    static long start() {
+        return ENABLED ? System.nanoTime() : 0L;
+    }
+
+    //Records one finished operation: comparisons made, nodes visited (the depth it reached) and its start time
+    void record(Op op, int comparisons, int visited, long start) {
+        long nanos = System.nanoTime() - start;
+        OperationStats s = ops[op.ordinal()];
+        s.count.increment();
+        s.comparisons.add(comparisons);
+        s.visited.add(visited);
+        s.maxDepth.accumulate(visited);
+        s.latency.incrementAndGet(nanos <= 0 ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos)));
+    }
+
+    //Records a single (double == false) or double rotation
+    void rotation(boolean isDouble) {
+        if (isDouble) doubleRotations.increment();
+        else singleRotations.increment();
+    }
+
+    //Returns a consistent-enough copy of every counter (each counter is read once, while operations may continue)
+    public Snapshot snapshot() {
+        return new Snapshot(tree, singleRotations.sum(), doubleRotations.sum(),
+                getInsert(), getContains(), getRemove());
+    }
+
+    //Sets every counter back to zero
+    @Override
+    public void reset() {
+        singleRotations.reset();
+        doubleRotations.reset();
+        for (OperationStats s : ops) s.reset();
+    }
+
+    @Override
+    public long getComparisons() {
+        long total = 0;
+        for (OperationStats s : ops) total += s.comparisons.sum();
+        return total;
+    }
+
+    @Override
+    public long getSingleRotations() {
+        return singleRotations.sum();
+    }
+
+    @Override
+    public long getDoubleRotations() {
+        return doubleRotations.sum();
+    }
+
+    @Override
+    public long getMaxDepth() {
+        long max = 0;
+        for (OperationStats s : ops) max = Math.max(max, s.maxDepth.get());
+        return max;
+    }
+
+    @Override
+    public double getAverageDepth() {
+        long count = 0, visited = 0;
+        for (OperationStats s : ops) {
+            count += s.count.sum();
+            visited += s.visited.sum();
+        }
+        return count == 0 ? 0 : (double) visited / count;
+    }
+
+    @Override
+    public OperationSnapshot getInsert() {
+        return ops[Op.INSERT.ordinal()].snapshot();
+    }
+
+    @Override
+    public OperationSnapshot getContains() {
+        return ops[Op.CONTAINS.ordinal()].snapshot();
+    }
+
+    @Override
+    public OperationSnapshot getRemove() {
+        return ops[Op.REMOVE.ordinal()].snapshot();
+    }
+
+    //Live counters for one operation type
+    private static class OperationStats {
+        final LongAdder count = new LongAdder();
+        final LongAdder comparisons = new LongAdder();
+        final LongAdder visited = new LongAdder();
+        final LongAccumulator maxDepth = new LongAccumulator(Math::max, 0);
+        final AtomicLongArray latency = new AtomicLongArray(BUCKETS);
+
+        OperationSnapshot snapshot() {
+            long[] histogram = new long[BUCKETS];
+            for (int b = 0; b < BUCKETS; b++) histogram[b] = latency.get(b);
+            return new OperationSnapshot(count.sum(), comparisons.sum(), visited.sum(), maxDepth.get(), histogram);
+        }
+
+        void reset() {
+            count.reset();
+            comparisons.reset();
+            visited.reset();
+            maxDepth.reset();
+            for (int b = 0; b < BUCKETS; b++) latency.set(b, 0);
+        }
+    }
+
+    //Counters of one operation type at one point in time
+    public static final class OperationSnapshot {
+        private final long count;
+        private final long comparisons;
+        private final long nodesVisited;
+        private final long maxDepth;
+        private final long[] latencyHistogram;
+
+        OperationSnapshot(long count, long comparisons, long nodesVisited, long maxDepth, long[] latencyHistogram) {
+            this.count = count;
+            this.comparisons = comparisons;
+            this.nodesVisited = nodesVisited;
+            this.maxDepth = maxDepth;
+            this.latencyHistogram = latencyHistogram;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getComparisons() {
+            return comparisons;
+        }
+
+        public long getNodesVisited() {
+            return nodesVisited;
+        }
+
+        public long getMaxDepth() {
+            return maxDepth;
+        }
+
+        public double getAverageDepth() {
+            return count == 0 ? 0 : (double) nodesVisited / count;
+        }
+
+        //Entry b counts operations that took [2^(b-1), 2^b) ns
+        public long[] getLatencyHistogram() {
+            return latencyHistogram.clone();
+        }
+
+        public long getMedianNanos() {
+            return percentileNanos(0.5);
+        }
+
+        public long getP99Nanos() {
+            return percentileNanos(0.99);
+        }
+
+        //Returns the upper bound of the histogram bucket holding the given fraction of operations, or 0 if there are none
+        public long percentileNanos(double fraction) {
+            long total = 0;
+            for (long c : latencyHistogram) total += c;
+            if (total == 0) return 0;
+            long target = (long) Math.ceil(fraction * total);
+            long seen = 0;
+            for (int b = 0; b < latencyHistogram.length; b++) {
+                seen += latencyHistogram[b];
+                if (seen >= target && latencyHistogram[b] > 0) return b == 0 ? 0 : (b >= 63 ? Long.MAX_VALUE : 1L << b);
+            }
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("count=%d comparisons=%d avgDepth=%.2f maxDepth=%d p50<=%dns p99<=%dns",
+                    count, comparisons, getAverageDepth(), maxDepth, getMedianNanos(), getP99Nanos());
+        }
+    }
+
+    //Every counter of one tree class at one point in time
+    public static final class Snapshot {
+        private final String tree;
+        private final long singleRotations;
+        private final long doubleRotations;
+        private final OperationSnapshot insert, contains, remove;
+
+        Snapshot(String tree, long singleRotations, long doubleRotations,
+                 OperationSnapshot insert, OperationSnapshot contains, OperationSnapshot remove) {
+            this.tree = tree;
+            this.singleRotations = singleRotations;
+            this.doubleRotations = doubleRotations;
+            this.insert = insert;
+            this.contains = contains;
+            this.remove = remove;
+        }
+
+        public long getSingleRotations() {
+            return singleRotations;
+        }
+
+        public long getDoubleRotations() {
+            return doubleRotations;
+        }
+
+        public OperationSnapshot get(Op op) {
+            switch (op) {
+                case INSERT: return insert;
+                case CONTAINS: return contains;
+                default: return remove;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return tree + " rotations single=" + singleRotations + " double=" + doubleRotations
+                    + "\n  insert   " + insert + "\n  contains " + contains + "\n  remove   " + remove;
+        }
+    }
+}
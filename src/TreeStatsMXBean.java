@@ -0,0 +1,19 @@
+/************************************************************************
+ * @file: TreeStatsMXBean.java
+ * @description: What JMX sees of a TreeStats: totals across operations, one snapshot per operation type,
+ *               and a reset.
+ * @author: Will S
+ * @date: October 18, 2026
+ ************************************************************************/
+
+public interface TreeStatsMXBean {
+    long getComparisons();
+    long getSingleRotations();
+    long getDoubleRotations();
+    long getMaxDepth();
+    double getAverageDepth();
+    TreeStats.OperationSnapshot getInsert();
+    TreeStats.OperationSnapshot getContains();
+    TreeStats.OperationSnapshot getRemove();
+    void reset();
+}